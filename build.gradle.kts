@@ -3,6 +3,7 @@ plugins {
     jacoco
     id("org.springframework.boot") version "3.5.5"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "edu.trincoll"
@@ -18,15 +19,45 @@ repositories {
     mavenCentral()
 }
 
+// Catalog seeding shared by the JMH benchmarks and the load test
+val seed: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[seed.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+
+// Workload generator, run with ./gradlew loadTest (see LoadTest for options)
+val loadtest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[loadtest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadtest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-validation")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("org.springframework.boot:spring-boot-starter-aop")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("com.github.ben-manes.caffeine:jcache")
+    implementation("org.hibernate.orm:hibernate-jcache")
+    implementation("org.hibernate.orm:hibernate-micrometer")
+    implementation("net.ttddyy:datasource-proxy:1.10")
     runtimeOnly("com.h2database:h2")
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.assertj:assertj-core:3.26.3")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    jmhImplementation(seed.output)
+    jmhRuntimeOnly("com.h2database:h2")
+
+    "loadtestImplementation"(seed.output)
+    "loadtestImplementation"("org.hdrhistogram:HdrHistogram:2.2.2")
 }
 
 tasks.withType<Test> {
@@ -34,6 +65,79 @@ tasks.withType<Test> {
     jvmArgs(listOf("-XX:+EnableDynamicAgentLoading", "-Xshare:off"))
 }
 
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Drives a simulated library workload and reports throughput and latency percentiles."
+    classpath = loadtest.runtimeClasspath
+    mainClass = "edu.trincoll.loadtest.LoadTest"
+    // ./gradlew loadTest -PloadArgs="--clients=128 --rate=5000 --duration=120"
+    if (project.hasProperty("loadArgs")) {
+        args(project.property("loadArgs").toString().split(" ").filter { it.isNotBlank() })
+    }
+    jvmArgs("-Xmx2g")
+}
+
+// ./gradlew bootJar -Paot adds Spring AOT's generated bean definitions; start with -Dspring.aot.enabled=true
+val aot = project.hasProperty("aot")
+if (aot) {
+    apply(plugin = "org.springframework.boot.aot")
+    tasks.named<org.springframework.boot.gradle.tasks.run.BootRun>("bootRun") {
+        systemProperty("spring.aot.enabled", "true")
+    }
+}
+
+// AppCDS: unpack the boot jar, record the classes one startup loads, then start with
+//   java -XX:SharedArchiveFile=build/cds/application.jsa -jar build/cds/app/<jar>
+val cdsDir = layout.buildDirectory.dir("cds")
+val cdsArchive = cdsDir.map { it.file("application.jsa") }
+val extractedJar = cdsDir.zip(tasks.bootJar.flatMap { it.archiveFileName }) { dir, name -> dir.file("app/$name") }
+val javaExecutable = javaToolchains.launcherFor(java.toolchain).map { it.executablePath.asFile.absolutePath }
+
+val extractBootJar by tasks.registering(Exec::class) {
+    group = "build"
+    description = "Unpacks the boot jar into build/cds/app, the layout the CDS archive is recorded from."
+    inputs.file(tasks.bootJar.flatMap { it.archiveFile })
+    outputs.dir(cdsDir.map { it.dir("app") })
+    doFirst {
+        commandLine(javaExecutable.get(), "-Djarmode=tools", "-jar", tasks.bootJar.get().archiveFile.get().asFile,
+            "extract", "--force", "--destination", cdsDir.get().dir("app").asFile)
+    }
+}
+
+val cdsTrainingRun by tasks.registering(Exec::class) {
+    group = "build"
+    description = "Starts the unpacked application once, stopping after refresh, to write build/cds/application.jsa."
+    dependsOn(extractBootJar)
+    inputs.file(extractedJar)
+    inputs.property("aot", aot)
+    outputs.file(cdsArchive)
+    doFirst {
+        commandLine(listOfNotNull(javaExecutable.get(),
+            "-XX:ArchiveClassesAtExit=${cdsArchive.get().asFile}",
+            "-Dspring.context.exit=onRefresh",
+            if (aot) "-Dspring.aot.enabled=true" else null,
+            "-jar", extractedJar.get().asFile.path,
+            "--library.snapshot.file="))
+    }
+}
+
+tasks.register<JavaExec>("startupBenchmark") {
+    group = "verification"
+    description = "Measures time to the first API response from the boot jar, the unpacked jar and the CDS archive."
+    dependsOn(cdsTrainingRun)
+    classpath = loadtest.runtimeClasspath
+    mainClass = "edu.trincoll.loadtest.StartupBenchmark"
+    // ./gradlew startupBenchmark -Paot -PstartupRuns=10
+    val runs = project.findProperty("startupRuns")?.toString() ?: "5"
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf("--jar=${tasks.bootJar.get().archiveFile.get().asFile}",
+            "--extracted=${extractedJar.get().asFile}",
+            "--archive=${cdsArchive.get().asFile}",
+            "--runs=$runs",
+            "--aot=$aot")
+    })
+}
+
 tasks.test {
     testLogging {
         events("passed", "skipped", "failed")
@@ -91,6 +195,21 @@ tasks.jacocoTestCoverageVerification {
     // Current baseline excludes JPA entities and Application class
 }
 
+jmh {
+    jmhVersion = "1.37"
+    // gc reports allocation per operation (gc.alloc.rate.norm) as well as GC counts and time
+    profilers = listOf("gc")
+    // ./gradlew jmh -PjmhIncludes=LateFee
+    if (project.hasProperty("jmhIncludes")) {
+        includes = listOf(project.property("jmhIncludes").toString())
+    }
+    // size of the seeded H2 catalog: ./gradlew jmh -PjmhBooks=1000,1000000
+    if (project.hasProperty("jmhBooks")) {
+        benchmarkParameters.put("books", objects.listProperty<String>()
+            .value(project.property("jmhBooks").toString().split(",")))
+    }
+}
+
 jacoco {
     toolVersion = "0.8.12"
 }
@@ -0,0 +1,101 @@
+package edu.trincoll.jmh;
+
+import edu.trincoll.seed.SeedCatalog;
+import edu.trincoll.service.LibraryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LibraryService#checkoutBook} and {@link LibraryService#returnBook}
+ * through the Spring proxies (transaction, metrics), each timed on its own:
+ * the per-invocation setup puts the book back in the state the measured call
+ * needs. Each call makes several database round trips, long enough that
+ * per-invocation setup does not distort the score.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CirculationBenchmark {
+
+    @Param({"10000", "100000"})
+    int books;
+
+    ConfigurableApplicationContext context;
+    LibraryService libraryService;
+    String[] isbns;
+    int next;
+    String isbn;
+    String member;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SeededLibrary.start(books);
+        libraryService = context.getBean(LibraryService.class);
+        List<String> spare = new ArrayList<>();
+        for (int id = 1; id <= books; id++) {
+            if (SeededLibrary.spare(id)) spare.add(SeedCatalog.isbn(id));
+        }
+        isbns = spare.toArray(String[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Available {
+        @Setup(Level.Invocation)
+        public void shelve(CirculationBenchmark b) {
+            if (b.isbn != null) b.libraryService.returnBook(b.isbn);
+            b.pick();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CheckedOut {
+        @Setup(Level.Invocation)
+        public void lend(CirculationBenchmark b) {
+            b.pick();
+            b.libraryService.checkoutBook(b.isbn, b.member);
+        }
+    }
+
+    // a different book each time, so no single row stays hot in the caches
+    void pick() {
+        isbn = isbns[next % isbns.length];
+        member = SeedCatalog.email(next % SeededLibrary.SPARE);
+        next++;
+    }
+
+    @Benchmark
+    public String checkout(Available available) {
+        return libraryService.checkoutBook(isbn, member);
+    }
+
+    @Benchmark
+    public String returnBook(CheckedOut checkedOut) {
+        String result = libraryService.returnBook(isbn);
+        isbn = null;
+        return result;
+    }
+}
@@ -0,0 +1,80 @@
+package edu.trincoll.jmh;
+
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.service.LateFeeCalculator;
+import edu.trincoll.service.LateFeeCalculatorFactory;
+import edu.trincoll.service.PremiumLateFeeCalculator;
+import edu.trincoll.service.RegularLateFeeCalculator;
+import edu.trincoll.service.StudentLateFeeCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar {@link LateFeeCalculator#calculateLateFee(long)} versus the bulk array methods.
+ * Scores are per whole array, so divide by {@code size} for a per-loan cost.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LateFeeCalculatorBenchmark {
+
+    @Param({"REGULAR", "STUDENT", "PREMIUM"})
+    MembershipType membershipType;
+
+    @Param({"1024", "1048576"})
+    int size;
+
+    LateFeeCalculator calculator;
+    long[] daysLate;
+    double[] fees;
+    long[] cents;
+
+    @Setup
+    public void setUp() {
+        var factory = new LateFeeCalculatorFactory(
+                new RegularLateFeeCalculator(), new PremiumLateFeeCalculator(), new StudentLateFeeCalculator());
+        calculator = factory.getCalculatorFor(membershipType);
+        daysLate = new long[size];
+        fees = new double[size];
+        cents = new long[size];
+        var random = new SplittableRandom(42);
+        for (int i = 0; i < size; i++) {
+            daysLate[i] = random.nextLong(-5, 90);
+        }
+    }
+
+    @Benchmark
+    public double[] scalar() {
+        for (int i = 0; i < size; i++) {
+            fees[i] = calculator.calculateLateFee(daysLate[i]);
+        }
+        return fees;
+    }
+
+    @Benchmark
+    public double[] bulk() {
+        calculator.calculateLateFees(daysLate, fees, size);
+        return fees;
+    }
+
+    @Benchmark
+    public long[] bulkCents() {
+        calculator.calculateLateFeesInCents(daysLate, cents, size);
+        return cents;
+    }
+}
@@ -0,0 +1,70 @@
+package edu.trincoll.jmh;
+
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.service.CheckoutPolicy;
+import edu.trincoll.service.CheckoutPolicyFactory;
+import edu.trincoll.service.LateFeeCalculator;
+import edu.trincoll.service.LateFeeCalculatorFactory;
+import edu.trincoll.service.PremiumLateFeeCalculator;
+import edu.trincoll.service.RegularLateFeeCalculator;
+import edu.trincoll.service.StudentLateFeeCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup cost of the per-membership-type strategies. Types come from a random
+ * sequence so the call sites stay megamorphic, as they are in production.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolicyDispatchBenchmark {
+    private static final int TYPES = 1024;
+
+    LateFeeCalculatorFactory lateFeeCalculatorFactory;
+    CheckoutPolicyFactory checkoutPolicyFactory;
+    MembershipType[] types;
+    int next;
+
+    @Setup
+    public void setUp() {
+        lateFeeCalculatorFactory = new LateFeeCalculatorFactory(
+                new RegularLateFeeCalculator(), new PremiumLateFeeCalculator(), new StudentLateFeeCalculator());
+        checkoutPolicyFactory = new CheckoutPolicyFactory();
+        types = new MembershipType[TYPES];
+        var random = new SplittableRandom(42);
+        MembershipType[] values = MembershipType.values();
+        for (int i = 0; i < TYPES; i++) {
+            types[i] = values[random.nextInt(values.length)];
+        }
+    }
+
+    @Benchmark
+    public LateFeeCalculator lateFeeCalculator() {
+        return lateFeeCalculatorFactory.getCalculatorFor(types[next++ & (TYPES - 1)]);
+    }
+
+    @Benchmark
+    public CheckoutPolicy checkoutPolicy() {
+        return checkoutPolicyFactory.getPolicyFor(types[next++ & (TYPES - 1)]);
+    }
+
+    @Benchmark
+    public double lateFee() {
+        return lateFeeCalculatorFactory.getCalculatorFor(types[next++ & (TYPES - 1)]).calculateLateFee(12);
+    }
+}
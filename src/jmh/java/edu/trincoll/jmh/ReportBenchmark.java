@@ -0,0 +1,58 @@
+package edu.trincoll.jmh;
+
+import edu.trincoll.service.report.ReportGenerator;
+import edu.trincoll.service.report.ReportRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each {@link ReportGenerator} as registered, so through its metrics and
+ * transaction wrappers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportBenchmark {
+
+    @Param({"10000", "100000"})
+    int books;
+
+    @Param({"overdue", "available", "members", "liability"})
+    String type;
+
+    ConfigurableApplicationContext context;
+    ReportGenerator generator;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SeededLibrary.start(books);
+        generator = context.getBean(ReportRegistry.class).get(type);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public String generate() {
+        return generator.generateReport();
+    }
+}
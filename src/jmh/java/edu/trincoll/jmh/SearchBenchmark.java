@@ -0,0 +1,79 @@
+package edu.trincoll.jmh;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.seed.SeedCatalog;
+import edu.trincoll.service.SearchFacade;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SearchFacade#search} for each search type, with terms drawn from the
+ * seeded catalog. Terms repeat, so scores include second-level and query
+ * cache hits as configured in production.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    private static final int TERMS = 4096;
+
+    @Param({"10000", "100000"})
+    int books;
+
+    @Param({"title", "author", "isbn"})
+    String type;
+
+    ConfigurableApplicationContext context;
+    SearchFacade searchFacade;
+    String[] terms;
+    int next;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SeededLibrary.start(books);
+        searchFacade = context.getBean(SearchFacade.class);
+        terms = new String[TERMS];
+        var random = new SplittableRandom(42);
+        for (int i = 0; i < TERMS; i++) {
+            int id = random.nextInt(1, books + 1);
+            terms[i] = switch (type) {
+                case "title" -> {
+                    // a word pair matches about one title in 400
+                    String title = SeedCatalog.title(id);
+                    yield title.substring(0, title.lastIndexOf(' '));
+                }
+                case "author" -> SeedCatalog.author(id);
+                default -> SeedCatalog.isbn(id);
+            };
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Book> search() {
+        return searchFacade.search(terms[next++ & (TERMS - 1)], type);
+    }
+}
@@ -0,0 +1,54 @@
+package edu.trincoll.jmh;
+
+import edu.trincoll.LibraryApplication;
+import edu.trincoll.seed.SeedCatalog;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * The application without its web server, on a private in-memory H2
+ * database seeded with {@code books} books and a tenth as many members.
+ *
+ * One book in five is checked out, with due dates from 30 days ago to 30
+ * days ahead, so overdue reports have work to do. The first {@link #SPARE}
+ * members and the books whose id is a multiple of 7 (and not of 5) are never
+ * seeded as loans; circulation benchmarks use them.
+ */
+final class SeededLibrary {
+    static final int SPARE = 64;
+
+    private SeededLibrary() {
+    }
+
+    static ConfigurableApplicationContext start(int books) {
+        String url = "jdbc:h2:mem:jmh-" + UUID.randomUUID();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(LibraryApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + url,
+                        "library.datasource.read.url=" + url,
+                        "library.snapshot.file=",
+                        "library.slow-query.explain=false",
+                        "logging.level.root=WARN")
+                .run();
+        seed(context.getBean(JdbcTemplate.class), books);
+        return context;
+    }
+
+    /** Books never seeded as checked out. */
+    static boolean spare(int id) {
+        return id % 7 == 0 && id % 5 != 0;
+    }
+
+    private static void seed(JdbcTemplate jdbc, int books) {
+        int members = Math.max(SPARE * 2, books / 10);
+        SeedCatalog.seed(jdbc, books, members, LocalDate.now(), id -> id % 5 == 0
+                ? SPARE + id % (members - SPARE)
+                : SeedCatalog.Loans.ON_SHELF);
+    }
+}
@@ -0,0 +1,223 @@
+package edu.trincoll.loadtest;
+
+import edu.trincoll.admission.ThrottledException;
+import edu.trincoll.seed.SeedCatalog;
+import edu.trincoll.service.LibraryFacade;
+import edu.trincoll.service.LibraryService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One run of the workload: {@code clients} virtual threads, each issuing
+ * operations on a fixed schedule of {@code clients / rate} seconds apart.
+ *
+ * The schedule is open-loop. Latency is measured from when an operation was
+ * due, not from when it was sent, so a client held up by a slow call still
+ * charges the wait to every operation that fell due in the meantime. Timing
+ * from the send would hide exactly the stalls this test is meant to find
+ * (coordinated omission).
+ *
+ * Each client checks out books from its own slice of the catalog and returns
+ * its oldest loan first, so clients never contend for a book. A background
+ * task moves the application clock forward, turning loans overdue.
+ */
+final class LoadRun {
+    private static final String[] SEARCH_TYPES = {"title", "author", "isbn"};
+    private static final String[] REPORT_TYPES = {"overdue", "available", "members", "liability"};
+
+    private final LibraryFacade facade;
+    private final MutableClock clock;
+    private final LoadTestOptions options;
+    private final Operation[] wheel;
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+    LoadRun(LibraryFacade facade, MutableClock clock, LoadTestOptions options) {
+        this.facade = facade;
+        this.clock = clock;
+        this.options = options;
+        int total = options.mix().values().stream().mapToInt(Integer::intValue).sum();
+        this.wheel = new Operation[total];
+        int i = 0;
+        for (Map.Entry<Operation, Integer> e : options.mix().entrySet()) {
+            for (int n = 0; n < e.getValue(); n++) wheel[i++] = e.getKey();
+        }
+        for (Operation op : Operation.values()) {
+            stats.put(op, new Stats());
+        }
+    }
+
+    void run(PrintStream out) {
+        int clients = options.clients();
+        long interval = (long) (clients * 1_000_000_000.0 / options.rate());
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+        long tick = options.tick().toMillis();
+        ticker.scheduleAtFixedRate(() -> clock.advance(Duration.ofDays(options.daysPerTick())),
+                tick, tick, TimeUnit.MILLISECONDS);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                // spread the clients over one interval so they do not fire in lockstep
+                long first = start + interval * c / clients;
+                executor.execute(new Client(c, first, interval, measureFrom, end));
+            }
+        } finally {
+            ticker.shutdownNow();
+        }
+        print(out);
+    }
+
+    private void print(PrintStream out) {
+        double seconds = options.duration().toNanos() / 1e9;
+        out.printf("%d clients, %.0f ops/s offered, %d s measured after %d s warm-up; clock advanced %d days%n",
+                options.clients(), options.rate(), options.duration().toSeconds(), options.warmup().toSeconds(),
+                clock.offset().toDays());
+        out.printf("%-9s %9s %9s %9s %9s %9s %9s %9s %9s %9s %9s%n", "operation", "count", "ops/s",
+                "ok", "refused", "throttled", "failed", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram all = new Histogram(3);
+        long[] totals = new long[4];
+        for (Operation op : Operation.values()) {
+            Stats s = stats.get(op);
+            Histogram h = s.latency.getIntervalHistogram();
+            all.add(h);
+            long[] counts = {s.ok.sum(), s.refused.sum(), s.throttled.sum(), s.failed.sum()};
+            for (int i = 0; i < counts.length; i++) totals[i] += counts[i];
+            row(out, op.name().toLowerCase(), h, seconds, counts);
+        }
+        row(out, "total", all, seconds, totals);
+        stats.values().stream().map(s -> s.firstFailure).filter(f -> f != null).findFirst()
+                .ifPresent(f -> out.println("first failure: " + f));
+    }
+
+    private static void row(PrintStream out, String name, Histogram h, double seconds, long[] counts) {
+        out.printf("%-9s %9d %9.1f %9d %9d %9d %9d %9.2f %9.2f %9.2f %9.2f%n", name, h.getTotalCount(),
+                h.getTotalCount() / seconds, counts[0], counts[1], counts[2], counts[3],
+                millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(99)),
+                millis(h.getValueAtPercentile(99.9)), millis(h.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private enum Outcome { OK, REFUSED, THROTTLED, FAILED }
+
+    private static final class Stats {
+        final Recorder latency = new Recorder(3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder refused = new LongAdder();
+        final LongAdder throttled = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        volatile String firstFailure;
+
+        void record(Outcome outcome, long latencyNanos) {
+            latency.recordValue(latencyNanos);
+            switch (outcome) {
+                case OK -> ok.increment();
+                case REFUSED -> refused.increment();
+                case THROTTLED -> throttled.increment();
+                case FAILED -> failed.increment();
+            }
+        }
+    }
+
+    private final class Client implements Runnable {
+        private final int id;
+        private final long first;
+        private final long interval;
+        private final long measureFrom;
+        private final long end;
+        private final SplittableRandom random;
+        private final Deque<String> loans = new ArrayDeque<>();
+
+        Client(int id, long first, long interval, long measureFrom, long end) {
+            this.id = id;
+            this.first = first;
+            this.interval = interval;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            this.random = new SplittableRandom(id);
+        }
+
+        @Override
+        public void run() {
+            for (long due = first; due < end; due += interval) {
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation op = wheel[random.nextInt(wheel.length)];
+                if (op == Operation.RETURN && loans.isEmpty()) op = Operation.CHECKOUT;
+                Outcome outcome = execute(op);
+                long latency = System.nanoTime() - due;
+                if (due >= measureFrom) {
+                    stats.get(op).record(outcome, latency);
+                }
+            }
+        }
+
+        private Outcome execute(Operation op) {
+            try {
+                return switch (op) {
+                    case CHECKOUT -> checkout();
+                    case RETURN -> succeeded(facade.returnBook(loans.pollFirst()));
+                    case SEARCH -> search();
+                    case REPORT -> {
+                        facade.generateReport(REPORT_TYPES[random.nextInt(REPORT_TYPES.length)]);
+                        yield Outcome.OK;
+                    }
+                };
+            } catch (ThrottledException e) {
+                return Outcome.THROTTLED;
+            } catch (RuntimeException e) {
+                Stats s = stats.get(op);
+                if (s.firstFailure == null) s.firstFailure = op + ": " + e;
+                return Outcome.FAILED;
+            }
+        }
+
+        private Outcome checkout() {
+            int slice = options.books() / options.clients();
+            String isbn = SeedCatalog.isbn(id + 1 + options.clients() * random.nextInt(slice));
+            String member = SeedCatalog.email(random.nextInt(options.members()));
+            Outcome outcome = succeeded(facade.checkoutBook(isbn, member));
+            if (outcome == Outcome.OK) loans.addLast(isbn);
+            return outcome;
+        }
+
+        private Outcome search() {
+            int book = 1 + random.nextInt(options.books());
+            String type = SEARCH_TYPES[random.nextInt(SEARCH_TYPES.length)];
+            String term = switch (type) {
+                case "title" -> {
+                    String title = SeedCatalog.title(book);
+                    yield title.substring(0, title.lastIndexOf(' '));
+                }
+                case "author" -> SeedCatalog.author(book);
+                default -> SeedCatalog.isbn(book);
+            };
+            facade.search(term, type);
+            return Outcome.OK;
+        }
+
+        private Outcome succeeded(String result) {
+            return LibraryService.succeeded(result) ? Outcome.OK : Outcome.REFUSED;
+        }
+    }
+}
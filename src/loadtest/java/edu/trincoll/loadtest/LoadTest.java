@@ -0,0 +1,47 @@
+package edu.trincoll.loadtest;
+
+import edu.trincoll.LibraryApplication;
+import edu.trincoll.seed.SeedCatalog;
+import edu.trincoll.service.LibraryFacade;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Answers "how much traffic can one node take?": starts the application
+ * in-process without its web server, seeds the catalog and drives a mix of
+ * checkouts, returns, searches and reports through {@link LibraryFacade},
+ * then prints throughput and latency percentiles per operation.
+ *
+ * <pre>
+ * ./gradlew loadTest -PloadArgs="--books=100000 --members=10000 --clients=64 --rate=2000
+ *     --duration=60 --warmup=15 --mix=checkout=30,return=25,search=40,report=5 --days-per-tick=1 --tick=5"
+ * </pre>
+ *
+ * Raise {@code rate} between runs until p99 or the throttled count is no
+ * longer acceptable; the last acceptable rate is the node's capacity.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        MutableClock clock = new MutableClock(Clock.systemDefaultZone());
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LibraryApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(c -> c.getBeanFactory().registerSingleton("clock", clock))
+                .properties("library.snapshot.file=", "logging.level.root=WARN")
+                .run(args)) {
+            System.out.printf("Seeding %d books and %d members%n", options.books(), options.members());
+            SeedCatalog.seed(context.getBean(JdbcTemplate.class), options.books(), options.members(), LocalDate.now(clock));
+            new LoadRun(context.getBean(LibraryFacade.class), clock, options).run(System.out);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package edu.trincoll.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command-line options, given as {@code --name=value}. Options not listed here
+ * are passed on to Spring, e.g. {@code --library.lanes.batch.permits=2}.
+ *
+ * @param rate        operations per second across all clients, spread evenly
+ * @param mix         relative weight of each operation
+ * @param daysPerTick simulated days added to the clock every {@code tick}
+ */
+record LoadTestOptions(int books, int members, int clients, double rate, Duration duration, Duration warmup,
+                       Map<Operation, Integer> mix, int daysPerTick, Duration tick) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("books", "100000")),
+                Integer.parseInt(values.getOrDefault("members", "10000")),
+                Integer.parseInt(values.getOrDefault("clients", "64")),
+                Double.parseDouble(values.getOrDefault("rate", "2000")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "15"))),
+                mix(values.getOrDefault("mix", "checkout=30,return=25,search=40,report=5")),
+                Integer.parseInt(values.getOrDefault("days-per-tick", "1")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("tick", "5"))));
+        if (options.clients() < 1 || options.rate() <= 0 || options.books() < options.clients()) {
+            throw new IllegalArgumentException("need at least one client, a positive rate and a book per client");
+        }
+        return options;
+    }
+
+    private static Map<Operation, Integer> mix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            mix.put(Operation.valueOf(kv[0].trim().toUpperCase()), Integer.parseInt(kv[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("mix needs a positive weight: " + spec);
+        }
+        return mix;
+    }
+}
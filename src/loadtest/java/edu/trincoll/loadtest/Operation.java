@@ -0,0 +1,3 @@
+package edu.trincoll.loadtest;
+
+enum Operation { CHECKOUT, RETURN, SEARCH, REPORT }
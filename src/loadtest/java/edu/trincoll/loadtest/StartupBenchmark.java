@@ -0,0 +1,134 @@
+package edu.trincoll.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching the application to its first successful API response,
+ * for each way of starting it:
+ *
+ * <ul>
+ *   <li>{@code jar}: the boot jar, as deployed today</li>
+ *   <li>{@code extracted}: the unpacked jar the CDS archive was recorded from</li>
+ *   <li>{@code cds}: the unpacked jar with the AppCDS archive</li>
+ *   <li>{@code aot}, {@code cds+aot}: the same with Spring AOT, when built with {@code -Paot}</li>
+ * </ul>
+ *
+ * Runs of the modes are interleaved so that machine noise hits them all
+ * alike. Run with {@code ./gradlew startupBenchmark [-Paot] [-PstartupRuns=10]}.
+ */
+public final class StartupBenchmark {
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final String FIRST_REQUEST = "/api/books?q=river&type=title";
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String name = arg.replaceFirst("^--", "");
+            int eq = name.indexOf('=');
+            options.put(eq < 0 ? name : name.substring(0, eq), eq < 0 ? "true" : name.substring(eq + 1));
+        }
+        Path jar = Path.of(required(options, "jar"));
+        Path extracted = Path.of(required(options, "extracted"));
+        String archive = required(options, "archive");
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        boolean aot = Boolean.parseBoolean(options.getOrDefault("aot", "false"));
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("jar", List.of("-jar", jar.toString()));
+        modes.put("extracted", List.of("-jar", extracted.toString()));
+        modes.put("cds", List.of("-XX:SharedArchiveFile=" + archive, "-jar", extracted.toString()));
+        if (aot) {
+            modes.put("aot", List.of("-Dspring.aot.enabled=true", "-jar", extracted.toString()));
+            modes.put("cds+aot", List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true",
+                    "-jar", extracted.toString()));
+        }
+
+        PrintStream out = System.out;
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        Map<String, List<Long>> results = new LinkedHashMap<>();
+        modes.keySet().forEach(mode -> results.put(mode, new ArrayList<>()));
+        for (int run = 1; run <= runs; run++) {
+            for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                File log = extracted.resolveSibling("startup-" + mode.getKey().replace('+', '-') + ".log").toFile();
+                long millis = timeToFirstRequest(mode.getValue(), http, log);
+                results.get(mode.getKey()).add(millis);
+                out.printf("run %d %-9s %6d ms%n", run, mode.getKey(), millis);
+            }
+        }
+
+        out.printf("%n%-9s %8s %8s %8s%n", "mode", "min ms", "median", "max ms");
+        for (Map.Entry<String, List<Long>> result : results.entrySet()) {
+            List<Long> times = result.getValue().stream().sorted().toList();
+            out.printf("%-9s %8d %8d %8d%n", result.getKey(), times.get(0), times.get(times.size() / 2),
+                    times.get(times.size() - 1));
+        }
+    }
+
+    private static long timeToFirstRequest(List<String> launch, HttpClient http, File log)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(launch);
+        command.add("--server.port=" + port);
+        command.add("--library.snapshot.file=");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + FIRST_REQUEST))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + "; see " + log);
+                }
+                try {
+                    if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException notListeningYet) {
+                    // the server has not opened its port
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("No response within " + TIMEOUT + "; see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) throw new IllegalArgumentException("--" + name + " is required");
+        return value;
+    }
+}
@@ -0,0 +1,110 @@
+package edu.trincoll.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides whether a request may proceed: a token bucket per member and per
+ * client caps how often each may call, and a global bound on requests in
+ * flight sheds load once the service is saturated. All checks are lock-free
+ * and reject immediately rather than queue.
+ *
+ * Refusals are counted in {@code library.admission.throttled}, tagged with the
+ * reason ({@code member}, {@code client} or {@code overload}).
+ */
+@Component
+public class AdmissionControl {
+    private static final long MAX_KEYS = 100_000;
+
+    private final KeyedRateLimiter members;
+    private final KeyedRateLimiter clients;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter memberThrottled;
+    private final Counter clientThrottled;
+    private final Counter shed;
+
+    @Autowired
+    public AdmissionControl(@Value("${library.admission.member.rate-per-second:1}") double memberRate,
+                            @Value("${library.admission.member.burst:10}") int memberBurst,
+                            @Value("${library.admission.client.rate-per-second:50}") double clientRate,
+                            @Value("${library.admission.client.burst:100}") int clientBurst,
+                            @Value("${library.admission.max-in-flight:200}") int maxInFlight,
+                            MeterRegistry meterRegistry) {
+        this(memberRate, memberBurst, clientRate, clientBurst, maxInFlight, meterRegistry, System::nanoTime);
+    }
+
+    AdmissionControl(double memberRate, int memberBurst, double clientRate, int clientBurst, int maxInFlight,
+                     MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.members = new KeyedRateLimiter(memberRate, memberBurst, MAX_KEYS, nanoTime);
+        this.clients = new KeyedRateLimiter(clientRate, clientBurst, MAX_KEYS, nanoTime);
+        this.maxInFlight = maxInFlight;
+        this.memberThrottled = throttled(meterRegistry, "member");
+        this.clientThrottled = throttled(meterRegistry, "client");
+        this.shed = throttled(meterRegistry, "overload");
+        Gauge.builder("library.admission.in-flight", inFlight, AtomicInteger::get)
+                .description("API requests currently admitted")
+                .register(meterRegistry);
+    }
+
+    /** @throws ThrottledException if the member has used up their rate */
+    public void admitMember(String email) {
+        if (email == null) return;
+        long wait = members.tryAcquire(email.toLowerCase(Locale.ROOT));
+        if (wait > 0) {
+            memberThrottled.increment();
+            throw new ThrottledException("Too many requests for member " + email, retryAfter(wait));
+        }
+    }
+
+    /** @throws ThrottledException if the client has used up its rate */
+    public void admitClient(String client) {
+        long wait = clients.tryAcquire(client);
+        if (wait > 0) {
+            clientThrottled.increment();
+            throw new ThrottledException("Too many requests from this client", retryAfter(wait));
+        }
+    }
+
+    /**
+     * Claims an in-flight slot. Every {@code true} must be paired with
+     * {@link #exit()}.
+     */
+    public boolean tryEnter() {
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            shed.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public void exit() {
+        inFlight.decrementAndGet();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private static Duration retryAfter(long nanos) {
+        // Retry-After is in whole seconds
+        return Duration.ofSeconds(Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L));
+    }
+
+    private static Counter throttled(MeterRegistry registry, String reason) {
+        return Counter.builder("library.admission.throttled")
+                .description("Requests refused by admission control")
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,91 @@
+package edu.trincoll.admission;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Admission control for {@code /api/**}, ahead of the controllers and
+ * {@code LibraryFacade}: a client over its rate gets 429 and a saturated
+ * service answers 503, both without touching the database. Clients are told
+ * apart by remote address. The {@value #CLIENT_HEADER} header is honoured
+ * only on requests from an address in {@code library.admission.trusted-proxies}
+ * (kiosks, or a proxy that sets it), so other callers cannot pick a fresh
+ * bucket per request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionFilter extends OncePerRequestFilter {
+    static final String CLIENT_HEADER = "X-Client-Id";
+
+    private final AdmissionControl admissionControl;
+    private final Set<String> trustedProxies;
+
+    public AdmissionFilter(AdmissionControl admissionControl) {
+        this(admissionControl, "");
+    }
+
+    @Autowired
+    public AdmissionFilter(AdmissionControl admissionControl,
+                           @Value("${library.admission.trusted-proxies:}") String trustedProxies) {
+        this.admissionControl = admissionControl;
+        this.trustedProxies = Set.copyOf(StringUtils.commaDelimitedListToSet(trustedProxies.replace(" ", "")));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            admissionControl.admitClient(clientKey(request));
+        } catch (ThrottledException e) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, e.retryAfter().toSeconds(), e.getMessage());
+            return;
+        }
+        if (!admissionControl.tryEnter()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is busy");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            admissionControl.exit();
+        }
+    }
+
+    String clientKey(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (trustedProxies.contains(address)) {
+            String client = request.getHeader(CLIENT_HEADER);
+            if (client != null && !client.isBlank()) return "id:" + client;
+        }
+        return "addr:" + address;
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String detail)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.getWriter().write("{\"status\":" + status.value() + ",\"title\":\"" + status.getReasonPhrase()
+                + "\",\"detail\":\"" + detail + "\"}");
+    }
+}
@@ -0,0 +1,39 @@
+package edu.trincoll.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * One {@link TokenBucket} per key. Idle buckets are dropped after a few
+ * minutes, by which time they would be full again anyway.
+ */
+final class KeyedRateLimiter {
+    private static final Duration IDLE = Duration.ofMinutes(5);
+
+    private final double ratePerSecond;
+    private final int burst;
+    private final LongSupplier nanoTime;
+    private final Cache<String, TokenBucket> buckets;
+
+    KeyedRateLimiter(double ratePerSecond, int burst, long maxKeys, LongSupplier nanoTime) {
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        this.nanoTime = nanoTime;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(IDLE)
+                .build();
+        // fail at startup rather than on the first request
+        new TokenBucket(ratePerSecond, burst, 0);
+    }
+
+    /** @return 0 if admitted, otherwise nanoseconds until the key may try again */
+    long tryAcquire(String key) {
+        long now = nanoTime.getAsLong();
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(ratePerSecond, burst, now));
+        return bucket.tryAcquire(now) ? 0 : Math.max(1, bucket.nanosUntilAvailable(now));
+    }
+}
@@ -0,0 +1,14 @@
+package edu.trincoll.admission;
+
+import java.time.Duration;
+
+/**
+ * An interactive or reporting lane stayed full for longer than the allowed
+ * wait; answered with 503, as the server rather than the caller is short.
+ */
+public class LaneBusyException extends ThrottledException {
+
+    public LaneBusyException(WorkLane lane) {
+        super("The " + lane.key() + " lane is busy", Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,235 @@
+package edu.trincoll.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs work in its {@link WorkLane}. Each lane has {@code
+ * library.lanes.<lane>.permits} slots, and the slots of the lanes drawing on
+ * a pool add up to no more than it holds (circulation and batch on the
+ * primary pool, search, reporting and export on the read pool), so reports,
+ * exports and imports cannot take the connections checkouts need.
+ *
+ * Circulation, search, reporting and export wait at most {@code
+ * library.lanes.max-wait-ms} for a slot and then fail with
+ * {@link LaneBusyException}. Batch work waits as long as it takes, and before
+ * starting it also waits, up to {@code library.lanes.batch-max-delay-ms},
+ * while any interactive lane's recent latency (an exponentially weighted
+ * average, including time spent waiting for a slot) is above its {@code
+ * target-ms}. Latency samples older than a few seconds are ignored, so an idle
+ * interactive lane never holds batch work back. A job made of many small
+ * steps runs them through one {@link #startBatch() BatchRun}, so the delay is
+ * bounded for the whole job rather than for each step.
+ *
+ * Requests run on virtual threads, so work runs on the caller's thread under
+ * its lane's slot rather than being handed to a per-lane pool; the caller's
+ * transaction stays where it is.
+ */
+@Component
+public class LaneScheduler {
+    private static final Logger log = LoggerFactory.getLogger(LaneScheduler.class);
+
+    private static final double EWMA_WEIGHT = 0.2;
+    private static final long STALE_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long BATCH_POLL_MILLIS = 50;
+
+    private final Map<WorkLane, Lane> lanes = new EnumMap<>(WorkLane.class);
+    private final long maxWaitNanos;
+    private final long batchMaxDelayNanos;
+    private final LongSupplier nanoTime;
+    private final Counter batchDeferred;
+
+    @Autowired
+    public LaneScheduler(Environment environment, MeterRegistry meterRegistry) {
+        this(environment, meterRegistry, System::nanoTime);
+    }
+
+    LaneScheduler(Environment environment, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(
+                environment.getProperty("library.lanes.max-wait-ms", Long.class, 1000L));
+        this.batchMaxDelayNanos = TimeUnit.MILLISECONDS.toNanos(
+                environment.getProperty("library.lanes.batch-max-delay-ms", Long.class, 30_000L));
+        for (WorkLane lane : WorkLane.values()) {
+            String prefix = "library.lanes." + lane.key() + ".";
+            int permits = environment.getProperty(prefix + "permits", Integer.class, lane.defaultPermits());
+            Duration target = lane.interactive()
+                    ? Duration.ofMillis(environment.getProperty(prefix + "target-ms", Long.class,
+                            lane.defaultTarget().toMillis()))
+                    : null;
+            lanes.put(lane, new Lane(lane, permits, target, meterRegistry, nanoTime.getAsLong()));
+        }
+        this.batchDeferred = Counter.builder("library.lane.batch.deferred")
+                .description("Times batch work waited for interactive lanes to meet their latency targets")
+                .register(meterRegistry);
+    }
+
+    private LaneScheduler() {
+        this.nanoTime = System::nanoTime;
+        this.maxWaitNanos = Long.MAX_VALUE;
+        this.batchMaxDelayNanos = 0;
+        MeterRegistry registry = new SimpleMeterRegistry();
+        for (WorkLane lane : WorkLane.values()) {
+            lanes.put(lane, new Lane(lane, Integer.MAX_VALUE, null, registry, 0));
+        }
+        this.batchDeferred = Counter.builder("library.lane.batch.deferred").register(registry);
+    }
+
+    /** Scheduler with no limits, for code constructed outside Spring. */
+    public static LaneScheduler unbounded() {
+        return new LaneScheduler();
+    }
+
+    public <T> T call(WorkLane workLane, Supplier<T> work) {
+        return call(workLane, work, nanoTime.getAsLong());
+    }
+
+    public void run(WorkLane workLane, Runnable work) {
+        call(workLane, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /** Starts a batch job whose steps share one {@code batch-max-delay-ms} allowance. */
+    public BatchRun startBatch() {
+        return new BatchRun(nanoTime.getAsLong());
+    }
+
+    // batch work is held back for at most batchMaxDelayNanos after delayFrom
+    private <T> T call(WorkLane workLane, Supplier<T> work, long delayFrom) {
+        Lane lane = lanes.get(workLane);
+        long start = nanoTime.getAsLong();
+        if (workLane == WorkLane.BATCH) {
+            awaitInteractiveHeadroom(delayFrom);
+            lane.permits.acquireUninterruptibly();
+        } else if (!lane.tryAcquire(maxWaitNanos)) {
+            lane.rejected.increment();
+            throw new LaneBusyException(workLane);
+        }
+        try {
+            return work.get();
+        } finally {
+            lane.permits.release();
+            if (lane.target != null) {
+                long now = nanoTime.getAsLong();
+                lane.record(now - start, now);
+            }
+        }
+    }
+
+    /** Whether any interactive lane is currently missing its latency target. */
+    public boolean interactiveBehind() {
+        long now = nanoTime.getAsLong();
+        for (Lane lane : lanes.values()) {
+            if (lane.behind(now)) return true;
+        }
+        return false;
+    }
+
+    private void awaitInteractiveHeadroom(long delayFrom) {
+        boolean deferred = false;
+        while (interactiveBehind() && nanoTime.getAsLong() - delayFrom < batchMaxDelayNanos) {
+            if (!deferred) {
+                deferred = true;
+                batchDeferred.increment();
+                log.debug("Holding batch work back: interactive lanes are over their latency targets");
+            }
+            try {
+                Thread.sleep(BATCH_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /** Steps of one batch job, run in the batch lane. */
+    public final class BatchRun {
+        private final long start;
+
+        private BatchRun(long start) {
+            this.start = start;
+        }
+
+        public <T> T call(Supplier<T> work) {
+            return LaneScheduler.this.call(WorkLane.BATCH, work, start);
+        }
+    }
+
+    private static final class Lane {
+        final Semaphore permits;
+        final Duration target;
+        final long targetNanos;
+        final Counter rejected;
+        // average latency in nanos, stored as double bits
+        final AtomicLong averageBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+        volatile long lastSampleNanos;
+
+        Lane(WorkLane lane, int slots, Duration target, MeterRegistry registry, long now) {
+            this.permits = new Semaphore(slots);
+            this.target = target;
+            this.targetNanos = target != null ? target.toNanos() : Long.MAX_VALUE;
+            this.lastSampleNanos = now - STALE_NANOS - 1;
+            this.rejected = Counter.builder("library.lane.rejected")
+                    .description("Work refused because its lane stayed full")
+                    .tag("lane", lane.key())
+                    .register(registry);
+            Gauge.builder("library.lane.active", this.permits, p -> slots - p.availablePermits())
+                    .description("Work currently running in the lane")
+                    .tag("lane", lane.key())
+                    .register(registry);
+            if (target != null) {
+                Gauge.builder("library.lane.latency", this, l -> l.average() / 1_000_000.0)
+                        .description("Recent average latency in milliseconds, including waiting for a slot")
+                        .tag("lane", lane.key())
+                        .register(registry);
+            }
+        }
+
+        boolean tryAcquire(long timeoutNanos) {
+            try {
+                return permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        void record(long latencyNanos, long now) {
+            while (true) {
+                long bits = averageBits.get();
+                double average = Double.longBitsToDouble(bits);
+                double next = now - lastSampleNanos > STALE_NANOS
+                        ? latencyNanos
+                        : average + EWMA_WEIGHT * (latencyNanos - average);
+                if (averageBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) break;
+            }
+            lastSampleNanos = now;
+        }
+
+        double average() {
+            return Double.longBitsToDouble(averageBits.get());
+        }
+
+        boolean behind(long now) {
+            return target != null && now - lastSampleNanos <= STALE_NANOS && average() > targetNanos;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package edu.trincoll.admission;
+
+import java.time.Duration;
+
+/**
+ * A request refused by admission control; answered with 429 and a
+ * {@code Retry-After} of {@link #retryAfter()}.
+ */
+public class ThrottledException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public ThrottledException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+}
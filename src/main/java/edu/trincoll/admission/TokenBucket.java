@@ -0,0 +1,43 @@
+package edu.trincoll.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: instead of a token count it keeps
+ * the theoretical arrival time of the next request, advanced by one emission
+ * interval per admitted request. A request is admitted while that time is no
+ * more than {@code burst} intervals ahead of now, so one CAS replaces the
+ * refill-and-take bookkeeping of a classic bucket.
+ */
+final class TokenBucket {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double ratePerSecond, int burst, long now) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("rate must be positive and burst at least 1");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.toleranceNanos = intervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    boolean tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            if (next - now > toleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /** How long until {@link #tryAcquire} would next succeed. */
+    long nanosUntilAvailable(long now) {
+        return Math.max(0, theoreticalArrival.get() + intervalNanos - toleranceNanos - now);
+    }
+}
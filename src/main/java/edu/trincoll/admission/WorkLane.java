@@ -0,0 +1,44 @@
+package edu.trincoll.admission;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Classes of work that {@link LaneScheduler} keeps apart. Each lane has its
+ * own bound on concurrent work, and so on connections held; the interactive
+ * lanes also have a latency target that, when missed, holds back new batch
+ * work. Exports hold their slot for as long as the client takes to read the
+ * stream, so they have a lane of their own rather than sharing reporting's.
+ */
+public enum WorkLane {
+    CIRCULATION(6, Duration.ofMillis(200)),
+    SEARCH(4, Duration.ofMillis(300)),
+    REPORTING(2, null),
+    EXPORT(1, null),
+    BATCH(4, null);
+
+    private final int defaultPermits;
+    private final Duration defaultTarget;
+
+    WorkLane(int defaultPermits, Duration defaultTarget) {
+        this.defaultPermits = defaultPermits;
+        this.defaultTarget = defaultTarget;
+    }
+
+    public boolean interactive() {
+        return defaultTarget != null;
+    }
+
+    int defaultPermits() {
+        return defaultPermits;
+    }
+
+    Duration defaultTarget() {
+        return defaultTarget;
+    }
+
+    /** Property name segment, e.g. {@code library.lanes.circulation.permits}. */
+    String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
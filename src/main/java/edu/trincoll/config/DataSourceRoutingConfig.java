@@ -0,0 +1,81 @@
+package edu.trincoll.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import edu.trincoll.metrics.SlowQueryDetector;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Two connection pools behind one {@link DataSource}: read-only transactions
+ * ({@code @Transactional(readOnly = true)}: search, reports) borrow from the
+ * {@code read} pool, everything else from {@code primary}. Each pool is sized
+ * on its own ({@code spring.datasource.hikari.*},
+ * {@code library.datasource.read.hikari.*}) and reports its own
+ * {@code hikaricp.*} metrics, so a burst of reports cannot exhaust the
+ * connections checkouts need.
+ */
+@Configuration
+public class DataSourceRoutingConfig {
+
+    @Bean(defaultCandidate = false)
+    @Qualifier("primary")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties,
+                                              ObjectProvider<MeterRegistry> meterRegistry) {
+        return pool(properties, "primary", meterRegistry);
+    }
+
+    @Bean(defaultCandidate = false)
+    @Qualifier("read")
+    @ConfigurationProperties("library.datasource.read")
+    public DataSourceProperties readDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean(defaultCandidate = false)
+    @Qualifier("read")
+    @ConfigurationProperties("library.datasource.read.hikari")
+    public HikariDataSource readDataSource(@Qualifier("read") DataSourceProperties properties,
+                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource pool = pool(properties, "read", meterRegistry);
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    /**
+     * The connection is fetched on first use, after the transaction manager
+     * has marked it read-only or not, which decides the pool. Both pools are
+     * watched for slow statements.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primary") DataSource primary, @Qualifier("read") DataSource read,
+                                 SlowQueryDetector slowQueryDetector) {
+        // may be null in unit tests
+        if (slowQueryDetector != null) {
+            primary = slowQueryDetector.wrap(primary, "primary");
+            read = slowQueryDetector.wrap(read, "read");
+        }
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(read);
+        return routing;
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String name,
+                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(name);
+        meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        return pool;
+    }
+}
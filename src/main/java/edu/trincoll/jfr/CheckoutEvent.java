@@ -0,0 +1,22 @@
+package edu.trincoll.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("edu.trincoll.Checkout")
+@Label("Checkout")
+@Description("LibraryService.checkoutBook")
+@Category({"Library", "Circulation"})
+@Threshold("10 ms")
+@StackTrace(false)
+public class CheckoutEvent extends LibraryEvent {
+    @Label("ISBN")
+    public String isbn;
+
+    @Label("Membership Type")
+    public String membershipType;
+}
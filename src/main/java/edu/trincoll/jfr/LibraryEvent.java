@@ -0,0 +1,41 @@
+package edu.trincoll.jfr;
+
+import edu.trincoll.metrics.StatementCounter;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Base of the library's Flight Recorder events. Each event is timed from
+ * {@link #start()} to {@link #finish(String)} and only fills in its fields and
+ * commits when it passed its threshold, so a disabled event costs next to
+ * nothing. Record continuously with e.g.
+ * {@code -XX:StartFlightRecording:settings=default,settings=<path>/jfr/library.jfc}.
+ */
+public abstract class LibraryEvent extends Event {
+    @Label("Result")
+    public String result;
+
+    @Label("SQL Statements")
+    public long statements;
+
+    private transient long statementsAtStart;
+
+    public void start() {
+        statementsAtStart = StatementCounter.current();
+        begin();
+    }
+
+    /**
+     * Stops timing. Subclass fields must be set before this is called.
+     *
+     * @param result outcome shown in the recording, e.g. the service's message
+     */
+    public void finish(String result) {
+        end();
+        if (shouldCommit()) {
+            this.result = result;
+            this.statements = StatementCounter.current() - statementsAtStart;
+            commit();
+        }
+    }
+}
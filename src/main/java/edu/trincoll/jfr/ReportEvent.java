@@ -0,0 +1,24 @@
+package edu.trincoll.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("edu.trincoll.Report")
+@Label("Report")
+@Description("ReportGenerator.generateReport")
+@Category({"Library", "Reports"})
+@Threshold("100 ms")
+@StackTrace(false)
+public class ReportEvent extends LibraryEvent {
+    @Label("Report Type")
+    public String reportType;
+
+    @Label("Report Size")
+    @DataAmount(DataAmount.BYTES)
+    public long size;
+}
@@ -0,0 +1,25 @@
+package edu.trincoll.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("edu.trincoll.Search")
+@Label("Search")
+@Description("SearchFacade.search")
+@Category({"Library", "Search"})
+@Threshold("20 ms")
+@StackTrace(false)
+public class SearchEvent extends LibraryEvent {
+    @Label("Search Type")
+    public String searchType;
+
+    @Label("Search Term")
+    public String term;
+
+    @Label("Books Found")
+    public int books;
+}
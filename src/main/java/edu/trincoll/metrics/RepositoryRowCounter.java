@@ -0,0 +1,63 @@
+package edu.trincoll.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.BaseStream;
+
+/**
+ * Records the number of rows each repository method returns as the
+ * {@code library.repository.rows} summary, tagged by repository and method.
+ * Latency per method is already recorded by Spring Boot as
+ * {@code spring.data.repository.invocations}. Methods returning counts,
+ * flags or streams are not recorded.
+ */
+public class RepositoryRowCounter implements MethodInterceptor {
+    private final Class<?> repositoryInterface;
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public RepositoryRowCounter(Class<?> repositoryInterface, Supplier<MeterRegistry> meterRegistry) {
+        this.repositoryInterface = repositoryInterface;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        long rows = rows(result, invocation.getMethod().getReturnType());
+        if (rows >= 0) {
+            summaries.computeIfAbsent(invocation.getMethod(), this::summary).record(rows);
+        }
+        return result;
+    }
+
+    private DistributionSummary summary(Method method) {
+        return DistributionSummary.builder("library.repository.rows")
+                .description("Rows returned per repository method call")
+                .tag("repository", repositoryInterface.getSimpleName())
+                .tag("method", method.getName())
+                .register(meterRegistry.get());
+    }
+
+    static long rows(Object result, Class<?> returnType) {
+        if (result instanceof Collection<?> rows) return rows.size();
+        if (result instanceof Optional<?> row) return row.isPresent() ? 1 : 0;
+        if (result instanceof Slice<?> page) return page.getNumberOfElements();
+        if (returnType == void.class || returnType.isPrimitive()
+                || Number.class.isAssignableFrom(returnType) || returnType == Boolean.class
+                || BaseStream.class.isAssignableFrom(returnType)) {
+            return -1;
+        }
+        return result == null ? 0 : 1;
+    }
+}
@@ -0,0 +1,15 @@
+package edu.trincoll.metrics;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A statement that took longer than {@code library.slow-query.threshold-ms}.
+ *
+ * @param dataSource     pool the statement ran on
+ * @param parameterTypes types of the first parameter set's values, in order; the values are not kept
+ * @param plan           H2 {@code EXPLAIN ANALYZE} output, or why there is none
+ */
+public record SlowQuery(Instant at, String dataSource, long elapsedMillis, String sql,
+                        List<String> parameterTypes, String plan) {
+}
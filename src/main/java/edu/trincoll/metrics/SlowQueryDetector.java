@@ -0,0 +1,187 @@
+package edu.trincoll.metrics;
+
+import jakarta.annotation.PreDestroy;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps a pool so that statements slower than {@code library.slow-query.threshold-ms}
+ * are logged and kept in a ring buffer of the last {@code library.slow-query.capacity}
+ * entries (actuator endpoint {@code slowqueries}). Bind parameters hold member
+ * emails and other personal data, so only their types are logged and kept.
+ *
+ * SELECTs are re-run as {@code EXPLAIN ANALYZE} on a background thread using a
+ * connection from the unwrapped pool, so capturing the plan neither delays the
+ * caller nor is itself reported as a slow query. The thread is single, so it
+ * holds at most one connection, which the pools leave room for outside the
+ * work lanes. Other statements are kept
+ * without a plan because analyzing them would apply their changes again.
+ */
+@Component
+public class SlowQueryDetector {
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryDetector.class);
+
+    private final long thresholdMillis;
+    private final boolean explain;
+    private final SlowQuery[] entries;
+    private int next;
+    private long recorded;
+    private final ThreadPoolExecutor explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16), runnable -> {
+                Thread thread = new Thread(runnable, "slow-query-explain");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public SlowQueryDetector(@Value("${library.slow-query.threshold-ms:200}") long thresholdMillis,
+                             @Value("${library.slow-query.capacity:100}") int capacity,
+                             @Value("${library.slow-query.explain:true}") boolean explain) {
+        this.thresholdMillis = thresholdMillis;
+        this.explain = explain;
+        this.entries = new SlowQuery[capacity];
+    }
+
+    /**
+     * @param name pool name shown in captured entries
+     */
+    public DataSource wrap(DataSource dataSource, String name) {
+        return ProxyDataSourceBuilder.create(name, dataSource)
+                .listener(new Listener(dataSource))
+                .build();
+    }
+
+    /** Captured slow queries, newest first. */
+    public synchronized List<SlowQuery> recent() {
+        List<SlowQuery> recent = new ArrayList<>(entries.length);
+        for (int i = 1; i <= entries.length; i++) {
+            SlowQuery entry = entries[Math.floorMod(next - i, entries.length)];
+            if (entry == null) break;
+            recent.add(entry);
+        }
+        return recent;
+    }
+
+    /** Number of slow queries seen since startup, including those no longer buffered. */
+    public synchronized long recorded() {
+        return recorded;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(entries, null);
+        next = 0;
+    }
+
+    private synchronized void add(SlowQuery entry) {
+        if (entries.length == 0) return;
+        entries[next] = entry;
+        next = (next + 1) % entries.length;
+        recorded++;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        explainer.shutdownNow();
+    }
+
+    private final class Listener implements QueryExecutionListener {
+        private final DataSource target;
+
+        Listener(DataSource target) {
+            this.target = target;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            long elapsed = execInfo.getElapsedTime();
+            if (elapsed < thresholdMillis) return;
+            Instant at = Instant.now();
+            for (QueryInfo query : queryInfoList) {
+                String sql = query.getQuery();
+                List<Object> parameters = query.getParametersList().isEmpty()
+                        ? List.of() : values(query.getParametersList().get(0));
+                List<String> types = types(parameters);
+                log.warn("Slow query on {} ({} ms): {} {}", execInfo.getDataSourceName(), elapsed, sql, types);
+                if (!explain || !isSelect(sql)) {
+                    add(new SlowQuery(at, execInfo.getDataSourceName(), elapsed, sql, types,
+                            explain ? "(not explained: not a SELECT)" : "(explain disabled)"));
+                    continue;
+                }
+                try {
+                    explainer.execute(() -> add(new SlowQuery(at, execInfo.getDataSourceName(), elapsed, sql,
+                            types, explain(target, sql, parameters))));
+                } catch (RejectedExecutionException e) {
+                    add(new SlowQuery(at, execInfo.getDataSourceName(), elapsed, sql, types,
+                            "(not explained: explain queue full)"));
+                }
+            }
+        }
+    }
+
+    private static String explain(DataSource dataSource, String sql, List<Object> parameters) {
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement("EXPLAIN ANALYZE " + sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                ps.setObject(i + 1, parameters.get(i));
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString().strip();
+        } catch (SQLException e) {
+            return "(explain failed: " + e.getMessage() + ")";
+        }
+    }
+
+    private static boolean isSelect(String sql) {
+        String start = sql.stripLeading();
+        return start.regionMatches(true, 0, "select", 0, 6) || start.regionMatches(true, 0, "with", 0, 4);
+    }
+
+    private static List<Object> values(List<ParameterSetOperation> operations) {
+        List<ParameterSetOperation> sorted = new ArrayList<>(operations);
+        sorted.sort(Comparator.comparingInt(op -> op.getArgs()[0] instanceof Integer index ? index : Integer.MAX_VALUE));
+        List<Object> values = new ArrayList<>(sorted.size());
+        for (ParameterSetOperation op : sorted) {
+            boolean isNull = op.getMethod().getName().equals("setNull");
+            values.add(isNull || op.getArgs().length < 2 ? null : op.getArgs()[1]);
+        }
+        return values;
+    }
+
+    private static List<String> types(List<Object> parameters) {
+        List<String> types = new ArrayList<>(parameters.size());
+        for (Object value : parameters) {
+            types.add(value == null ? "null" : value.getClass().getSimpleName());
+        }
+        return List.copyOf(types);
+    }
+}
@@ -0,0 +1,34 @@
+package edu.trincoll.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/slowqueries}: the slow queries captured by {@link SlowQueryDetector}.
+ * {@code DELETE} empties the buffer.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+    private final SlowQueryDetector detector;
+
+    public SlowQueryEndpoint(SlowQueryDetector detector) {
+        this.detector = detector;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowQueries() {
+        List<SlowQuery> recent = detector.recent();
+        return Map.of("recorded", detector.recorded(), "queries", recent);
+    }
+
+    @DeleteOperation
+    public void clear() {
+        detector.clear();
+    }
+}
@@ -0,0 +1,68 @@
+package edu.trincoll.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each HTTP request issues and flags requests
+ * above {@code library.metrics.statement-threshold}, which usually means an
+ * N+1 query pattern (one query per row of an earlier result).
+ */
+@Component
+public class StatementCountFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(StatementCountFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int threshold;
+
+    public StatementCountFilter(MeterRegistry meterRegistry,
+                                @Value("${library.metrics.statement-threshold:25}") int threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long before = StatementCounter.current();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long statements = StatementCounter.current() - before;
+            String uri = uriTemplate(request);
+            DistributionSummary.builder("library.request.statements")
+                    .description("SQL statements issued per HTTP request")
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements);
+            if (statements > threshold) {
+                Counter.builder("library.request.statements.excessive")
+                        .description("Requests issuing more SQL statements than the threshold")
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("{} {} issued {} SQL statements (threshold {}); possible N+1 queries",
+                        request.getMethod(), request.getRequestURI(), statements, threshold);
+            }
+        }
+    }
+
+    // the route template, not the raw path, keeps the tag's cardinality bounded
+    private static String uriTemplate(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
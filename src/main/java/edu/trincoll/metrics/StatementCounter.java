@@ -0,0 +1,21 @@
+package edu.trincoll.metrics;
+
+/**
+ * Running count of SQL statements prepared by Hibernate on the current thread.
+ * The count only grows; callers take it before and after a unit of work and
+ * use the difference, so nested measurements need no bookkeeping.
+ */
+public final class StatementCounter {
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private StatementCounter() {
+    }
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    static void increment() {
+        COUNT.get()[0]++;
+    }
+}
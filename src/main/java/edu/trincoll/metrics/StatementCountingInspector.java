@@ -0,0 +1,15 @@
+package edu.trincoll.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Feeds {@link StatementCounter}; registered with Hibernate in {@code MetricsConfig}.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        StatementCounter.increment();
+        return sql;
+    }
+}
@@ -3,25 +3,45 @@ package edu.trincoll.model;
 import java.time.LocalDate;
 import java.util.Objects;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        // findByStatus, countByStatus, and overdue loans (status = ? and due_date < ?)
+        @Index(name = "idx_books_status_due_date", columnList = "status, due_date"),
+        @Index(name = "idx_books_author", columnList = "author"),
+        @Index(name = "idx_books_checked_out_by", columnList = "checked_out_by")
+})
+@EntityListeners(CatalogVersion.Listener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
+@NaturalIdCache(region = "books-by-isbn")
 public class Book {
+    // Sequence ids (pooled, 50 per round trip) let Hibernate batch inserts; IDENTITY cannot.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "ISBN is required")
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false)
     private String isbn;
 
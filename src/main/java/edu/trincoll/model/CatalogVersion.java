@@ -0,0 +1,70 @@
+package edu.trincoll.model;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide counter that changes whenever a book or member changes, used to
+ * validate cached search results and reports without recomputing them.
+ *
+ * Entity changes are picked up by {@link Listener}; code that changes rows
+ * behind JPA's back (bulk JPQL, JDBC) calls {@link #changed()} itself. Inside a
+ * transaction the counter moves only after commit, so a response computed from
+ * uncommitted data is never labelled with the new version. It starts at the
+ * startup time, so versions from an earlier run never match.
+ *
+ * Versions only order changes seen by this process. Another instance behind
+ * the same load balancer counts its own changes, so anything comparing
+ * versions across requests also compares {@link #node()}.
+ */
+public final class CatalogVersion {
+    private static final AtomicLong VERSION = new AtomicLong(System.currentTimeMillis());
+    private static final Object PENDING = new Object();
+    private static final String NODE = UUID.randomUUID().toString().substring(0, 8);
+
+    private CatalogVersion() {
+    }
+
+    public static long current() {
+        return VERSION.get();
+    }
+
+    /** Random id of this process, fixed until it restarts. */
+    public static String node() {
+        return NODE;
+    }
+
+    public static void changed() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            VERSION.incrementAndGet();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(PENDING)) return;   // once per transaction
+        TransactionSynchronizationManager.bindResource(PENDING, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PENDING);
+                if (status == STATUS_COMMITTED) {
+                    VERSION.incrementAndGet();
+                }
+            }
+        });
+    }
+
+    /** Entity listener for {@link Book} and {@link Member}. */
+    public static class Listener {
+        @PostPersist
+        @PostUpdate
+        @PostRemove
+        void changed(Object entity) {
+            CatalogVersion.changed();
+        }
+    }
+}
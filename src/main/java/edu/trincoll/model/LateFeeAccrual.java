@@ -0,0 +1,67 @@
+package edu.trincoll.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.time.LocalDate;
+
+/**
+ * One night's late-fee assessment for one overdue loan. Rows are written in
+ * bulk by the accrual job; the (book, date) key makes a re-run of the same
+ * night overwrite rather than duplicate.
+ */
+@Entity
+@Table(name = "late_fee_accruals",
+        uniqueConstraints = @UniqueConstraint(name = "uk_accrual_book_date", columnNames = {"book_id", "accrual_date"}))
+public class LateFeeAccrual {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(name = "member_email", nullable = false)
+    private String memberEmail;
+
+    @Column(name = "accrual_date", nullable = false)
+    private LocalDate accrualDate;
+
+    @Column(name = "days_late", nullable = false)
+    private long daysLate;
+
+    @Column(name = "fee_cents", nullable = false)
+    private long feeCents;
+
+    public LateFeeAccrual() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public String getMemberEmail() {
+        return memberEmail;
+    }
+
+    public LocalDate getAccrualDate() {
+        return accrualDate;
+    }
+
+    public long getDaysLate() {
+        return daysLate;
+    }
+
+    public long getFeeCents() {
+        return feeCents;
+    }
+}
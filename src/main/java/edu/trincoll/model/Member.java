@@ -3,11 +3,22 @@ package edu.trincoll.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDate;
 import java.util.Objects;
 
 @Entity
-@Table(name = "members")
+@Table(name = "members", indexes = {
+        @Index(name = "idx_members_membership_type", columnList = "membership_type"),
+        @Index(name = "idx_members_books_checked_out", columnList = "books_checked_out")
+})
+@EntityListeners(CatalogVersion.Listener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "members")
+@NaturalIdCache(region = "members-by-email")
 public class Member {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -19,6 +30,7 @@ public class Member {
 
     @Email(message = "Email should be valid")
     @NotBlank(message = "Email is required")
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false)
     private String email;
 
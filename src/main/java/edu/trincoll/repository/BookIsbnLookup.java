@@ -0,0 +1,20 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.Book;
+
+import java.util.Optional;
+
+/**
+ * Looks books up by their natural id so the result can come from Hibernate's
+ * natural-id and second-level caches instead of a query.
+ */
+public interface BookIsbnLookup {
+
+    Optional<Book> findByIsbn(String isbn);
+
+    /**
+     * The book re-read from the database and locked until the caller's
+     * transaction ends. Use for read-modify-write of a book's row.
+     */
+    Optional<Book> findByIsbnForUpdate(String isbn);
+}
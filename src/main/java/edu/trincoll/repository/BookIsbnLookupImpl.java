@@ -0,0 +1,36 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+class BookIsbnLookupImpl implements BookIsbnLookup {
+    private final EntityManager entityManager;
+
+    BookIsbnLookupImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Book> findByIsbn(String isbn) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Book.class)
+                .loadOptional(isbn);
+    }
+
+    // refresh, not a locking query: a book already in the persistence context
+    // would come back with the state it was loaded with, not the locked row's
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<Book> findByIsbnForUpdate(String isbn) {
+        Optional<Book> book = findByIsbn(isbn);
+        book.ifPresent(b -> entityManager.refresh(b, LockModeType.PESSIMISTIC_WRITE));
+        return book;
+    }
+}
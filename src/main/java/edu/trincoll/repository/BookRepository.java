@@ -2,27 +2,95 @@ package edu.trincoll.repository;
 
 import edu.trincoll.model.Book;
 import edu.trincoll.model.BookStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
-
-    Optional<Book> findByIsbn(String isbn);
+public interface BookRepository extends JpaRepository<Book, Long>, BookIsbnLookup {
 
     List<Book> findByStatus(BookStatus status);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Book> findByAuthor(String author);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Book> findByTitleContainingIgnoreCase(String title);
 
-    List<Book> findByDueDateBefore(LocalDate date);
+    List<Book> findByStatusAndDueDateBefore(BookStatus status, LocalDate date);
 
     List<Book> findByCheckedOutBy(String memberEmail);
 
     long countByStatus(BookStatus status);
+
+    @Query("select b.isbn from Book b")
+    List<String> findAllIsbns();
+
+    /**
+     * Groups every checked-out book due before {@code date} by the borrower's
+     * membership type and the due date, in a single join query.
+     */
+    @Query("""
+            select new edu.trincoll.repository.OverdueLoanBucket(m.membershipType, b.dueDate, count(b))
+            from Book b join Member m on m.email = b.checkedOutBy
+            where b.status = :status and b.dueDate < :date
+            group by m.membershipType, b.dueDate
+            """)
+    List<OverdueLoanBucket> countOverdueLoans(@Param("status") BookStatus status, @Param("date") LocalDate date);
+
+    /**
+     * Keyset page of overdue loans: up to {@code limit} loans with a book id
+     * greater than {@code afterId}, in id order.
+     */
+    @Query("""
+            select new edu.trincoll.repository.OverdueLoan(b.id, b.checkedOutBy, m.membershipType, b.dueDate)
+            from Book b join Member m on m.email = b.checkedOutBy
+            where b.status = :status and b.dueDate < :date and b.id > :afterId
+            order by b.id
+            """)
+    List<OverdueLoan> findOverdueLoansAfter(@Param("status") BookStatus status, @Param("date") LocalDate date,
+                                            @Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Every book as an unmanaged row, in id order. Rows are read through a
+     * forward-only cursor; close the stream and call inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new edu.trincoll.repository.BookRow(b.id, b.isbn, b.title, b.author, b.publicationDate,
+                   b.status, b.checkedOutBy, b.dueDate)
+            from Book b order by b.id
+            """)
+    Stream<BookRow> streamAllRows();
+
+    /**
+     * Every book in {@code status} with its borrower, in book id order, through
+     * a forward-only cursor.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new edu.trincoll.repository.LoanRow(b.id, b.isbn, b.checkedOutBy, m.membershipType, b.dueDate)
+            from Book b join Member m on m.email = b.checkedOutBy
+            where b.status = :status
+            order by b.id
+            """)
+    Stream<LoanRow> streamLoans(@Param("status") BookStatus status);
+
+    /** Current loans of the given books; books on the shelf are left out. */
+    @Query("""
+            select new edu.trincoll.repository.LoanRow(b.id, b.isbn, b.checkedOutBy, m.membershipType, b.dueDate)
+            from Book b join Member m on m.email = b.checkedOutBy
+            where b.isbn in :isbns
+            """)
+    List<LoanRow> findLoansByIsbnIn(@Param("isbns") Collection<String> isbns);
 }
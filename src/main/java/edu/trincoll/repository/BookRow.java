@@ -0,0 +1,13 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.BookStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Unmanaged copy of a books row, for exports that must not fill the
+ * persistence context.
+ */
+public record BookRow(Long id, String isbn, String title, String author, LocalDate publicationDate,
+                      BookStatus status, String checkedOutBy, LocalDate dueDate) {
+}
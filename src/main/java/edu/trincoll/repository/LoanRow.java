@@ -0,0 +1,12 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.MembershipType;
+
+import java.time.LocalDate;
+
+/**
+ * A checked-out book with its borrower's membership type.
+ */
+public record LoanRow(Long bookId, String isbn, String memberEmail, MembershipType membershipType,
+                      LocalDate dueDate) {
+}
@@ -0,0 +1,14 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.Member;
+
+import java.util.Optional;
+
+/**
+ * Looks members up by their natural id so the result can come from Hibernate's
+ * natural-id and second-level caches instead of a query.
+ */
+public interface MemberEmailLookup {
+
+    Optional<Member> findByEmail(String email);
+}
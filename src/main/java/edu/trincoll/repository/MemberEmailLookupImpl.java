@@ -0,0 +1,24 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.Member;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+class MemberEmailLookupImpl implements MemberEmailLookup {
+    private final EntityManager entityManager;
+
+    MemberEmailLookupImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Member> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Member.class)
+                .loadOptional(email);
+    }
+}
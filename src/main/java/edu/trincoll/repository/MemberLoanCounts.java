@@ -0,0 +1,19 @@
+package edu.trincoll.repository;
+
+/**
+ * Changes a member's checkout count with one conditional UPDATE, without
+ * reading the row first. Concurrent changes to the same member queue on the
+ * row lock the UPDATE takes, and each one sees the count the previous one
+ * committed.
+ *
+ * Hibernate does not see the new count: callers evict the member from the
+ * caches once the transaction commits.
+ */
+public interface MemberLoanCounts {
+
+    /** @return whether the member held fewer than {@code maxBooks} and now holds one more */
+    boolean addLoan(long memberId, int maxBooks);
+
+    /** @return whether the member held a book and now holds one fewer */
+    boolean removeLoan(long memberId);
+}
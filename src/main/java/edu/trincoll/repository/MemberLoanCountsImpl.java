@@ -0,0 +1,43 @@
+package edu.trincoll.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+class MemberLoanCountsImpl implements MemberLoanCounts {
+    // Without a query space of its own, a native update makes Hibernate drop
+    // every cached entity and query; no entity or cached query uses this one.
+    private static final String QUERY_SPACE = "member_loan_counts";
+
+    private final EntityManager entityManager;
+
+    MemberLoanCountsImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean addLoan(long memberId, int maxBooks) {
+        return entityManager.unwrap(Session.class)
+                .createNativeQuery("""
+                        UPDATE members SET books_checked_out = books_checked_out + 1
+                        WHERE id = :id AND books_checked_out < :maxBooks""")
+                .setParameter("id", memberId)
+                .setParameter("maxBooks", maxBooks)
+                .addSynchronizedQuerySpace(QUERY_SPACE)
+                .executeUpdate() == 1;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean removeLoan(long memberId) {
+        return entityManager.unwrap(Session.class)
+                .createNativeQuery("""
+                        UPDATE members SET books_checked_out = books_checked_out - 1
+                        WHERE id = :id AND books_checked_out > 0""")
+                .setParameter("id", memberId)
+                .addSynchronizedQuerySpace(QUERY_SPACE)
+                .executeUpdate() == 1;
+    }
+}
@@ -2,18 +2,44 @@ package edu.trincoll.repository;
 
 import edu.trincoll.model.Member;
 import edu.trincoll.model.MembershipType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface MemberRepository extends JpaRepository<Member, Long> {
-
-    Optional<Member> findByEmail(String email);
+public interface MemberRepository extends JpaRepository<Member, Long>, MemberEmailLookup, MemberLoanCounts {
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Member> findByMembershipType(MembershipType membershipType);
 
     List<Member> findByBooksCheckedOutGreaterThan(int count);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Member m set m.membershipType = :to where m.membershipType = :from")
+    int updateMembershipType(@Param("from") MembershipType from, @Param("to") MembershipType to);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Member m set m.membershipType = :to where m.email in :emails")
+    int updateMembershipTypeByEmail(@Param("emails") Collection<String> emails, @Param("to") MembershipType to);
+
+    /**
+     * Every member as an unmanaged row, in id order, through a forward-only
+     * cursor. Close the stream and call inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new edu.trincoll.repository.MemberRow(m.id, m.name, m.email, m.membershipType,
+                   m.memberSince, m.booksCheckedOut)
+            from Member m order by m.id
+            """)
+    Stream<MemberRow> streamAllRows();
 }
@@ -0,0 +1,13 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.MembershipType;
+
+import java.time.LocalDate;
+
+/**
+ * Unmanaged copy of a members row, for exports that must not fill the
+ * persistence context.
+ */
+public record MemberRow(Long id, String name, String email, MembershipType membershipType,
+                        LocalDate memberSince, int booksCheckedOut) {
+}
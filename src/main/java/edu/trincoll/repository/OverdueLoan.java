@@ -0,0 +1,11 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.MembershipType;
+
+import java.time.LocalDate;
+
+/**
+ * Flat view of one overdue loan, read without loading {@code Book}/{@code Member} entities.
+ */
+public record OverdueLoan(Long bookId, String memberEmail, MembershipType membershipType, LocalDate dueDate) {
+}
@@ -0,0 +1,13 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.MembershipType;
+
+import java.time.LocalDate;
+
+/**
+ * Number of overdue loans sharing the same membership type and due date.
+ * Loans in a bucket are late by the same number of days, so one fee
+ * evaluation covers the whole bucket.
+ */
+public record OverdueLoanBucket(MembershipType membershipType, LocalDate dueDate, long loans) {
+}
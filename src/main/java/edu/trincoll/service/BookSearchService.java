@@ -3,11 +3,13 @@ package edu.trincoll.service;
 import edu.trincoll.model.Book;
 import edu.trincoll.repository.BookRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Transactional(readOnly = true)
 public class BookSearchService {
     private final BookRepository bookRepository;
 
@@ -1,17 +1,24 @@
 package edu.trincoll.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import edu.trincoll.model.MembershipType;
 
 @Component
 public class CheckoutPolicyFactory {
-    
+    private final PolicyTableProvider policies;
+
+    public CheckoutPolicyFactory() {
+        this(PolicyTableProvider.defaults());
+    }
+
+    @Autowired
+    public CheckoutPolicyFactory(PolicyTableProvider policies) {
+        this.policies = policies;
+    }
+
     public CheckoutPolicy getPolicyFor(MembershipType type) {
-        return switch (type) {
-            case REGULAR -> new RegularCheckoutPolicy();
-            case PREMIUM -> new PremiumCheckoutPolicy();
-            case STUDENT -> new StudentCheckoutPolicy();
-        };
+        return policies.current().get(type);
     }
-}
\ No newline at end of file
+}
@@ -7,4 +7,25 @@ public interface LateFeeCalculator {
      * @return monetary late fee (e.g. in dollars)
      */
     double calculateLateFee(long daysLate);
+
+    /**
+     * Bulk form of {@link #calculateLateFee(long)} for accrual and reporting jobs.
+     * Writes the fee for {@code daysLate[i]} into {@code fees[i]} for {@code i < length}.
+     * Implementations should override this with a straight loop the JIT can vectorize.
+     */
+    default void calculateLateFees(long[] daysLate, double[] fees, int length) {
+        for (int i = 0; i < length; i++) {
+            fees[i] = calculateLateFee(daysLate[i]);
+        }
+    }
+
+    /**
+     * Same as {@link #calculateLateFees(long[], double[], int)} but in whole cents,
+     * which lets callers sum millions of fees without floating-point drift.
+     */
+    default void calculateLateFeesInCents(long[] daysLate, long[] cents, int length) {
+        for (int i = 0; i < length; i++) {
+            cents[i] = Math.round(calculateLateFee(daysLate[i]) * 100);
+        }
+    }
 }
@@ -2,6 +2,7 @@ package edu.trincoll.service;
 
 //Edited by Taha
 import edu.trincoll.model.MembershipType;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -11,6 +12,17 @@ public class LateFeeCalculatorFactory {
     private final PremiumLateFeeCalculator premiumLateFeeCalculator;
     private final StudentLateFeeCalculator studentLateFeeCalculator;
 
+    public LateFeeCalculatorFactory() {
+        this(PolicyTableProvider.defaults());
+    }
+
+    public LateFeeCalculatorFactory(PolicyTableProvider policies) {
+        this(new RegularLateFeeCalculator(policies),
+                new PremiumLateFeeCalculator(policies),
+                new StudentLateFeeCalculator(policies));
+    }
+
+    @Autowired
     public LateFeeCalculatorFactory(RegularLateFeeCalculator regularLateFeeCalculator,
                                     PremiumLateFeeCalculator premiumLateFeeCalculator,
                                     StudentLateFeeCalculator studentLateFeeCalculator) {
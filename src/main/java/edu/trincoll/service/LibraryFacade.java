@@ -1,9 +1,15 @@
 // Taha
 package edu.trincoll.service;
 
+import edu.trincoll.admission.AdmissionControl;
+import edu.trincoll.admission.LaneScheduler;
+import edu.trincoll.admission.WorkLane;
 import edu.trincoll.model.Book;
+import edu.trincoll.model.CatalogVersion;
 import edu.trincoll.service.report.ReportRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -34,19 +40,50 @@ public class LibraryFacade {
     private final BookSearchService bookSearchService;
     private final SearchFacade searchFacade;
     private final ReportRegistry reportRegistry;
+    private final LibraryService libraryService;
+    private final AdmissionControl admissionControl;
+    private final LaneScheduler laneScheduler;
 
+    @Autowired
     public LibraryFacade(BookSearchService bookSearchService,
                          SearchFacade searchFacade,
-                         ReportRegistry reportRegistry) {
+                         ReportRegistry reportRegistry,
+                         LibraryService libraryService,
+                         AdmissionControl admissionControl,
+                         LaneScheduler laneScheduler) {
         this.bookSearchService = bookSearchService;
         this.searchFacade = searchFacade;
         this.reportRegistry = reportRegistry;
+        this.libraryService = libraryService;
+        this.admissionControl = admissionControl;
+        this.laneScheduler = laneScheduler;
     }
 
-    // Simplified APIs for controllers
-    public List<Book> searchByTitle(String title) { return bookSearchService.searchByTitle(title); }
-    public List<Book> searchByAuthor(String author) { return bookSearchService.searchByAuthor(author); }
-    public List<Book> search(String term, String type) { return searchFacade.search(term, type); }
-    public String generateReport(String type) { return reportRegistry.get(type).generateReport(); }
+    // Simplified APIs for controllers; each runs in its WorkLane
+    @Transactional(readOnly = true)
+    public List<Book> searchByTitle(String title) {
+        return laneScheduler.call(WorkLane.SEARCH, () -> bookSearchService.searchByTitle(title));
+    }
+    @Transactional(readOnly = true)
+    public List<Book> searchByAuthor(String author) {
+        return laneScheduler.call(WorkLane.SEARCH, () -> bookSearchService.searchByAuthor(author));
+    }
+    @Transactional(readOnly = true)
+    public List<Book> search(String term, String type) {
+        return laneScheduler.call(WorkLane.SEARCH, () -> searchFacade.search(term, type));
+    }
+    @Transactional(readOnly = true)
+    public String generateReport(String type) {
+        return laneScheduler.call(WorkLane.REPORTING, () -> reportRegistry.get(type).generateReport());
+    }
+    public String checkoutBook(String isbn, String memberEmail) {
+        // per-member rate; per-client and in-flight limits are applied by AdmissionFilter
+        admissionControl.admitMember(memberEmail);
+        return laneScheduler.call(WorkLane.CIRCULATION, () -> libraryService.checkoutBook(isbn, memberEmail));
+    }
+    public String returnBook(String isbn) {
+        return laneScheduler.call(WorkLane.CIRCULATION, () -> libraryService.returnBook(isbn));
+    }
+    public long catalogVersion() { return CatalogVersion.current(); }
 }
 
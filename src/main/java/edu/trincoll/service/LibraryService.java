@@ -1,132 +1,171 @@
 package edu.trincoll.service;
 
 
+import edu.trincoll.jfr.CheckoutEvent;
+import edu.trincoll.jfr.ReturnEvent;
 import edu.trincoll.model.Book;
 import edu.trincoll.model.BookStatus;
 import edu.trincoll.model.Member;
-import edu.trincoll.model.MembershipType;
 import edu.trincoll.repository.BookRepository;
-import edu.trincoll.repository.MemberRepository;
 import edu.trincoll.service.report.ReportRegistry;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;   // <-- add this import
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.util.List;
 
 @Service
 public class LibraryService {
+    private static final Logger log = LoggerFactory.getLogger(LibraryService.class);
+
+    // checkout and return report refusals as messages rather than exceptions
+    private static final List<String> SUCCESS_PREFIXES = List.of("Book checked out successfully", "Book returned");
 
     private final BookRepository bookRepository;
-    private final MemberRepository memberRepository;
-    private final SearchFacade searchFacade;   // may be null in legacy unit tests
+    private final SearchFacade searchFacade;
     private final ReportRegistry reportRegistry;
+    private final CheckoutPolicyFactory checkoutPolicyFactory;
+    private final LateFeeCalculatorFactory lateFeeCalculatorFactory;
+    private final MemberService memberService;
+    private final Clock clock;
 
-    // legacy constructor (used by hand-made unit tests)
-    public LibraryService(BookRepository bookRepository, MemberRepository memberRepository) {
-        this(bookRepository, memberRepository, null, null);
-    }
-
-    // tell Spring to use THIS one when wiring the app context
     @Autowired
     public LibraryService(BookRepository bookRepository,
-                          MemberRepository memberRepository,
                           SearchFacade searchFacade,
-                          ReportRegistry reportRegistry) {
+                          ReportRegistry reportRegistry,
+                          CheckoutPolicyFactory checkoutPolicyFactory,
+                          LateFeeCalculatorFactory lateFeeCalculatorFactory,
+                          MemberService memberService,
+                          Clock clock) {
         this.bookRepository = bookRepository;
-        this.memberRepository = memberRepository;
         this.searchFacade = searchFacade;
         this.reportRegistry = reportRegistry;
+        this.checkoutPolicyFactory = checkoutPolicyFactory;
+        this.lateFeeCalculatorFactory = lateFeeCalculatorFactory;
+        this.memberService = memberService;
+        this.clock = clock;
     }
 
     // TODO 1 (15 points): SRP Violation - This method has multiple responsibilities
     // Extract book-specific operations to a separate BookService
     // Move member-specific operations to a separate MemberService
+    @Timed(value = "library.checkout", description = "Checkout time")
+    @Transactional
     public String checkoutBook(String isbn, String memberEmail) {
-        // Find book
-        Book book = bookRepository.findByIsbn(isbn)
-                .orElseThrow(() -> new IllegalArgumentException("Book not found"));
+        return checkoutBook(isbn, memberEmail, LocalDate.now(clock));
+    }
 
-        // Find member
-        Member member = memberRepository.findByEmail(memberEmail)
-                .orElseThrow(() -> new IllegalArgumentException("Member not found"));
+    /**
+     * Checkout that took place on {@code date}, such as one recorded by a desk
+     * working offline; the due date counts from that day.
+     */
+    @Timed(value = "library.checkout", description = "Checkout time")
+    @Transactional
+    public String checkoutBook(String isbn, String memberEmail, LocalDate date) {
+        CheckoutEvent event = new CheckoutEvent();
+        event.isbn = isbn;
+        event.start();
+        String result = "error";
+        try {
+            result = checkout(isbn, memberEmail, date, event);
+            return result;
+        } catch (RuntimeException e) {
+            result = e.getClass().getSimpleName() + ": " + e.getMessage();
+            throw e;
+        } finally {
+            event.finish(result);
+        }
+    }
+
+    private String checkout(String isbn, String memberEmail, LocalDate date, CheckoutEvent event) {
+        // Find book, locked: of two desks lending the same copy, the second
+        // waits here and then finds it checked out
+        Book book = bookRepository.findByIsbnForUpdate(isbn)
+                .orElseThrow(() -> new NotFoundException("Book not found"));
+
+        // Find member; the cached copy is only read, the count is changed on the row
+        Member member = memberService.findByEmail(memberEmail)
+                .orElseThrow(() -> new NotFoundException("Member not found"));
+        event.membershipType = typeName(member);
 
         // Check if book is available
         if (book.getStatus() != BookStatus.AVAILABLE) {
             return "Book is not available";
         }
 
-        // TODO 2 (15 points): OCP Violation - This checkout limit logic violates Open-Closed Principle
-        // Create a CheckoutPolicy interface with different implementations for each membership type
-        // Use Strategy pattern instead of if-else statements
-        int maxBooks;
-        int loanPeriodDays;
-
-        if (member.getMembershipType() == MembershipType.REGULAR) {
-            maxBooks = 3;
-            loanPeriodDays = 14;
-        } else if (member.getMembershipType() == MembershipType.PREMIUM) {
-            maxBooks = 10;
-            loanPeriodDays = 30;
-        } else if (member.getMembershipType() == MembershipType.STUDENT) {
-            maxBooks = 5;
-            loanPeriodDays = 21;
-        } else {
-            throw new IllegalStateException("Unknown membership type");
+        if (member.getMembershipType() == null) {
+            throw new RuleViolationException("Unknown membership type");
         }
+        CheckoutPolicy policy = checkoutPolicyFactory.getPolicyFor(member.getMembershipType());
 
-        if (member.getBooksCheckedOut() >= maxBooks) {
+        // Update member, only while under the limit
+        if (!memberService.addLoan(member, policy.getMaxBooks())) {
             return "Member has reached checkout limit";
         }
 
         // Update book status
         book.setStatus(BookStatus.CHECKED_OUT);
         book.setCheckedOutBy(member.getEmail());
-        book.setDueDate(LocalDate.now().plusDays(loanPeriodDays));
+        book.setDueDate(date.plusDays(policy.getLoanPeriodDays()));
         bookRepository.save(book);
 
-        // Update member
-        member.setBooksCheckedOut(member.getBooksCheckedOut() + 1);
-        memberRepository.save(member);
-
         // TODO 3 (10 points): SRP Violation - Notification logic should be separate
         // Create a NotificationServi ace interface with email implementation
         // This demonstrates DIP (depend on abstraction, not concrete email sending)
-        System.out.println("Sending email to: " + member.getEmail());
-        System.out.println("Subject: Book checked out");
-        System.out.println("Message: You have checked out " + book.getTitle());
+        log.debug("Sending email to {}: you have checked out {}", member.getEmail(), book.getTitle());
 
         return "Book checked out successfully. Due date: " + book.getDueDate();
     }
 
     // TODO 4 (15 points): SRP Violation - Return book logic should be in BookService
     // Also contains duplicated notification logic (DRY violation)
+    @Timed(value = "library.return", description = "Return time")
+    @Transactional
     public String returnBook(String isbn) {
-        Book book = bookRepository.findByIsbn(isbn)
-                .orElseThrow(() -> new IllegalArgumentException("Book not found"));
+        return returnBook(isbn, LocalDate.now(clock));
+    }
+
+    /** Return that took place on {@code date}; any late fee is counted up to that day. */
+    @Timed(value = "library.return", description = "Return time")
+    @Transactional
+    public String returnBook(String isbn, LocalDate date) {
+        ReturnEvent event = new ReturnEvent();
+        event.isbn = isbn;
+        event.start();
+        String result = "error";
+        try {
+            result = returnBook(isbn, date, event);
+            return result;
+        } catch (RuntimeException e) {
+            result = e.getClass().getSimpleName() + ": " + e.getMessage();
+            throw e;
+        } finally {
+            event.finish(result);
+        }
+    }
+
+    private String returnBook(String isbn, LocalDate date, ReturnEvent event) {
+        Book book = bookRepository.findByIsbnForUpdate(isbn)
+                .orElseThrow(() -> new NotFoundException("Book not found"));
 
         if (book.getStatus() != BookStatus.CHECKED_OUT) {
             return "Book is not checked out";
         }
 
         String memberEmail = book.getCheckedOutBy();
-        Member member = memberRepository.findByEmail(memberEmail)
-                .orElseThrow(() -> new IllegalArgumentException("Member not found"));
+        Member member = memberService.findByEmail(memberEmail)
+                .orElseThrow(() -> new NotFoundException("Member not found"));
+        event.membershipType = typeName(member);
 
-        // TODO 5 (10 points): OCP & SRP Violation - Late fee calculation
-        // Create a LateFeeCalculator interface with strategy implementations
-        // Different membership types might have different fee structures
         double lateFee = 0.0;
-        if (book.getDueDate().isBefore(LocalDate.now())) {
-            long daysLate = LocalDate.now().toEpochDay() - book.getDueDate().toEpochDay();
-
-            if (member.getMembershipType() == MembershipType.REGULAR) {
-                lateFee = daysLate * 0.50;
-            } else if (member.getMembershipType() == MembershipType.PREMIUM) {
-                lateFee = 0.0; // Premium members don't pay late fees
-            } else if (member.getMembershipType() == MembershipType.STUDENT) {
-                lateFee = daysLate * 0.25;
-            }
+        if (book.getDueDate().isBefore(date) && member.getMembershipType() != null) {
+            long daysLate = date.toEpochDay() - book.getDueDate().toEpochDay();
+            lateFee = lateFeeCalculatorFactory.getCalculatorFor(member.getMembershipType()).calculateLateFee(daysLate);
         }
 
         // Update book
@@ -136,65 +175,48 @@ public class LibraryService {
         bookRepository.save(book);
 
         // Update member
-        member.setBooksCheckedOut(member.getBooksCheckedOut() - 1);
-        memberRepository.save(member);
+        memberService.removeLoan(member);
 
         // Duplicated notification code (should use NotificationService)
-        System.out.println("Sending email to: " + member.getEmail());
-        System.out.println("Subject: Book returned");
-        System.out.println("Message: You have returned " + book.getTitle());
+        log.debug("Sending email to {}: you have returned {}", member.getEmail(), book.getTitle());
 
         if (lateFee > 0) {
-            return "Book returned. Late fee: $" + String.format("%.2f", lateFee);
+            return "Book returned. Late fee: $" + dollars(lateFee);
         }
 
         return "Book returned successfully";
     }
 
+    /** Whether a message from {@link #checkoutBook} or {@link #returnBook} reports success. */
+    public static boolean succeeded(String result) {
+        return SUCCESS_PREFIXES.stream().anyMatch(result::startsWith);
+    }
+
+    // same text as String.format("%.2f", amount) for non-negative amounts, without the Formatter
+    static String dollars(double amount) {
+        long cents = Math.round(amount * 100);
+        long fraction = cents % 100;
+        return (cents / 100) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    private static String typeName(Member member) {
+        return member.getMembershipType() != null ? member.getMembershipType().name() : null;
+    }
+
     // TODO 6 (10 points): SRP Violation - Search/query operations
     // Create a BookSearchService with different search strategies
     // This also demonstrates ISP - clients shouldn't depend on unused search methods
+        @Transactional(readOnly = true)
         public List<Book> searchBooks(String searchTerm, String searchType) {
-            if (searchFacade != null) {
-                return searchFacade.search(searchTerm, searchType);
-            }
-            // Legacy behavior (keeps original tests passing)
-            if ("title".equalsIgnoreCase(searchType)) {
-                return bookRepository.findByTitleContainingIgnoreCase(searchTerm);
-            } else if ("author".equalsIgnoreCase(searchType)) {
-                return bookRepository.findByAuthor(searchTerm);
-            } else if ("isbn".equalsIgnoreCase(searchType)) {
-                return bookRepository.findByIsbn(searchTerm).map(List::of).orElse(List.of());
-            } else {
-                throw new IllegalArgumentException("Invalid search type");
-            }
+            return searchFacade.search(searchTerm, searchType);
         }
 
     // TODO 7 (10 points): LSP & OCP Violation - Report generation
     // Create a ReportGenerator interface with different format implementations
     // This allows adding new report formats without modifying existing code
+        @Transactional(readOnly = true)
         public String generateReport(String reportType) {
-            if (reportRegistry != null) {
-                return reportRegistry.get(reportType).generateReport();
-            }
-            if ("overdue".equalsIgnoreCase(reportType)) {
-                List<Book> overdueBooks = bookRepository.findByDueDateBefore(LocalDate.now());
-                StringBuilder report = new StringBuilder("OVERDUE BOOKS REPORT\n");
-                report.append("====================\n");
-                for (Book book : overdueBooks) {
-                    report.append(String.format("%s by %s - Due: %s - Checked out by: %s%n",
-                            book.getTitle(), book.getAuthor(), book.getDueDate(), book.getCheckedOutBy()));
-                }
-                return report.toString();
-            } else if ("available".equalsIgnoreCase(reportType)) {
-                long availableCount = bookRepository.countByStatus(BookStatus.AVAILABLE);
-                return "Available books: " + availableCount;
-            } else if ("members".equalsIgnoreCase(reportType)) {
-                long totalMembers = memberRepository.count();
-                return "Total members: " + totalMembers;
-            } else {
-                throw new IllegalArgumentException("Invalid report type");
-            }
+            return reportRegistry.get(reportType).generateReport();
         }
 
 
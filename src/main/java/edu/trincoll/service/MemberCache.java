@@ -0,0 +1,89 @@
+package edu.trincoll.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import edu.trincoll.model.Member;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Bounded, expiring cache of members by email and by id.
+ *
+ * Entries are private copies: callers get a fresh detached {@link Member} on every
+ * hit, so mutating a returned member never leaks into the cache or to other threads.
+ * Hit/miss counts are published as Micrometer {@code cache.*} meters.
+ */
+@Component
+public class MemberCache implements MeterBinder {
+    private final Cache<String, Member> byEmail;
+    private final Cache<Long, Member> byId;
+
+    public MemberCache(@Value("${library.member-cache.max-size:10000}") long maxSize,
+                       @Value("${library.member-cache.ttl:10m}") Duration ttl) {
+        this.byEmail = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.byId = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+    }
+
+    public Optional<Member> getByEmail(String email) {
+        return Optional.ofNullable(byEmail.getIfPresent(email)).map(MemberCache::copyOf);
+    }
+
+    public Optional<Member> getById(Long id) {
+        return Optional.ofNullable(byId.getIfPresent(id)).map(MemberCache::copyOf);
+    }
+
+    public void put(Member member) {
+        if (member == null || member.getId() == null || member.getEmail() == null) return;
+        Member copy = copyOf(member);
+        Member previous = byId.asMap().put(copy.getId(), copy);
+        if (previous != null && !Objects.equals(previous.getEmail(), copy.getEmail())) {
+            byEmail.invalidate(previous.getEmail());
+        }
+        byEmail.put(copy.getEmail(), copy);
+    }
+
+    public void evict(Member member) {
+        if (member == null) return;
+        if (member.getId() != null) {
+            Member previous = byId.asMap().remove(member.getId());
+            if (previous != null) byEmail.invalidate(previous.getEmail());
+        }
+        if (member.getEmail() != null) byEmail.invalidate(member.getEmail());
+    }
+
+    public void invalidateAll() {
+        byEmail.invalidateAll();
+        byId.invalidateAll();
+    }
+
+    /** Combined hit ratio of the email and id lookups since startup. */
+    public double hitRatio() {
+        CacheStats stats = byEmail.stats().plus(byId.stats());
+        return stats.hitRate();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byEmail, "members.byEmail");
+        CaffeineCacheMetrics.monitor(registry, byId, "members.byId");
+    }
+
+    private static Member copyOf(Member source) {
+        Member copy = new Member();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setEmail(source.getEmail());
+        copy.setMembershipType(source.getMembershipType());
+        copy.setMemberSince(source.getMemberSince());
+        copy.setBooksCheckedOut(source.getBooksCheckedOut());
+        return copy;
+    }
+}
@@ -1,35 +1,75 @@
 //Edited By Taha
 package edu.trincoll.service;
 
+import edu.trincoll.model.CatalogVersion;
 import edu.trincoll.model.Member;
+import edu.trincoll.model.MembershipType;
 import edu.trincoll.repository.MemberRepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
 import java.util.Optional;
 
 @Service
 public class MemberService {
 
     private final MemberRepository memberRepository;
+    private final MemberCache memberCache;
+    private final SecondLevelCache secondLevelCache;
 
-    public MemberService(MemberRepository memberRepository) {
+    @Autowired
+    public MemberService(MemberRepository memberRepository, MemberCache memberCache,
+                         SecondLevelCache secondLevelCache) {
         this.memberRepository = memberRepository;
+        this.memberCache = memberCache;
+        this.secondLevelCache = secondLevelCache;
     }
 
     public Optional<Member> findById(Long memberId) {
-        return memberRepository.findById(memberId);
+        Optional<Member> cached = memberCache.getById(memberId);
+        if (cached.isPresent()) return cached;
+        Optional<Member> loaded = memberRepository.findById(memberId);
+        loaded.ifPresent(member -> afterCommit(() -> memberCache.put(member)));
+        return loaded;
     }
 
     public Optional<Member> findByEmail(String email) {
-        return memberRepository.findByEmail(email);
+        Optional<Member> cached = memberCache.getByEmail(email);
+        if (cached.isPresent()) return cached;
+        Optional<Member> loaded = memberRepository.findByEmail(email);
+        loaded.ifPresent(member -> afterCommit(() -> memberCache.put(member)));
+        return loaded;
+    }
+
+    /**
+     * Adds a loan to the member's row unless they already hold {@code maxBooks}.
+     * The limit is checked by the UPDATE itself, so a cached copy of the member
+     * is enough to call this with; the copies are dropped once the caller's
+     * transaction commits.
+     *
+     * @return whether the loan was added
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean addLoan(Member member, int maxBooks) {
+        return loansChanged(member, memberRepository.addLoan(member.getId(), maxBooks));
+    }
+
+    /** Takes a loan off the member's row, never going below zero. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean removeLoan(Member member) {
+        return loansChanged(member, memberRepository.removeLoan(member.getId()));
     }
 
     @Transactional
     public Member incrementCheckoutCount(Member member) {
         if (member == null) throw new IllegalArgumentException("member cannot be null");
         member.setBooksCheckedOut(member.getBooksCheckedOut() + 1);
-        return memberRepository.save(member);
+        return save(member);
     }
 
     @Transactional
@@ -37,7 +77,7 @@ public class MemberService {
         if (member == null) throw new IllegalArgumentException("member cannot be null");
         int current = Math.max(0, member.getBooksCheckedOut() - 1);
         member.setBooksCheckedOut(current);
-        return memberRepository.save(member);
+        return save(member);
     }
 
     /**
@@ -52,6 +92,76 @@ public class MemberService {
 
     @Transactional
     public Member save(Member member) {
-        return memberRepository.save(member);
+        Member saved = memberRepository.save(member);
+        afterCommit(() -> memberCache.put(saved));
+        return saved;
+    }
+
+    /**
+     * Moves every member of type {@code from} to {@code to} in one UPDATE statement.
+     *
+     * @return number of members changed
+     */
+    @Transactional
+    public int changeMembershipType(MembershipType from, MembershipType to) {
+        int changed = memberRepository.updateMembershipType(from, to);
+        afterCommit(memberCache::invalidateAll);
+        CatalogVersion.changed();
+        return changed;
+    }
+
+    /**
+     * Sets the membership type of the given members in one UPDATE statement.
+     *
+     * @return number of members changed
+     */
+    @Transactional
+    public int changeMembershipType(Collection<String> emails, MembershipType to) {
+        if (emails.isEmpty()) return 0;
+        int changed = memberRepository.updateMembershipTypeByEmail(emails, to);
+        afterCommit(memberCache::invalidateAll);
+        CatalogVersion.changed();
+        return changed;
+    }
+
+    /**
+     * Drops every cached member, including Hibernate's second-level cache. Call
+     * after changing members behind JPA's back (bulk SQL, imports); inside the
+     * transaction that made the change, the caches are dropped once it commits.
+     */
+    public void evictAll() {
+        afterCommit(() -> {
+            memberCache.invalidateAll();
+            secondLevelCache.evict(Member.class);
+        });
+        CatalogVersion.changed();
+    }
+
+    private boolean loansChanged(Member member, boolean changed) {
+        if (changed) {
+            afterCommit(() -> {
+                memberCache.evict(member);
+                secondLevelCache.evict(Member.class, member.getId());
+            });
+            CatalogVersion.changed();
+        }
+        return changed;
+    }
+
+    /**
+     * Inside a transaction cache changes are applied only once it commits, so a
+     * rolled-back change is never served from the cache.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
-}
\ No newline at end of file
+}
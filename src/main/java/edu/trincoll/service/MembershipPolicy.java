@@ -0,0 +1,33 @@
+package edu.trincoll.service;
+
+import edu.trincoll.model.Member;
+
+/**
+ * Circulation rules for one membership type. Instances are immutable and shared,
+ * so handing one out as a {@link CheckoutPolicy} costs nothing.
+ *
+ * @param lateFeeCentsPerDay fee charged per day late, in cents
+ */
+public record MembershipPolicy(int maxBooks, int loanPeriodDays, long lateFeeCentsPerDay) implements CheckoutPolicy {
+
+    public MembershipPolicy {
+        if (maxBooks < 0) throw new IllegalArgumentException("maxBooks must not be negative");
+        if (loanPeriodDays <= 0) throw new IllegalArgumentException("loanPeriodDays must be positive");
+        if (lateFeeCentsPerDay < 0) throw new IllegalArgumentException("lateFeeCentsPerDay must not be negative");
+    }
+
+    @Override
+    public int getMaxBooks() {
+        return maxBooks;
+    }
+
+    @Override
+    public int getLoanPeriodDays() {
+        return loanPeriodDays;
+    }
+
+    @Override
+    public boolean canCheckout(Member member) {
+        return member.getBooksCheckedOut() < maxBooks;
+    }
+}
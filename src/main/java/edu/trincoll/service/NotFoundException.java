@@ -0,0 +1,11 @@
+package edu.trincoll.service;
+
+/**
+ * The book or member a request names does not exist; answered with 404.
+ */
+public class NotFoundException extends IllegalArgumentException {
+
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
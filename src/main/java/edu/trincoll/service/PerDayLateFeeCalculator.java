@@ -0,0 +1,44 @@
+package edu.trincoll.service;
+
+import edu.trincoll.model.MembershipType;
+
+/**
+ * Late fee of a flat number of cents per day, with the rate taken from the
+ * current {@link PolicyTable} so it follows policy reloads. Early or on-time
+ * returns ({@code daysLate <= 0}) are free.
+ */
+public abstract class PerDayLateFeeCalculator implements LateFeeCalculator {
+    private final PolicyTableProvider policies;
+    private final MembershipType membershipType;
+
+    protected PerDayLateFeeCalculator(PolicyTableProvider policies, MembershipType membershipType) {
+        this.policies = policies;
+        this.membershipType = membershipType;
+    }
+
+    protected long centsPerDay() {
+        return policies.current().get(membershipType).lateFeeCentsPerDay();
+    }
+
+    @Override
+    public double calculateLateFee(long daysLate) {
+        return Math.max(0L, daysLate) * centsPerDay() / 100.0;
+    }
+
+    // The rate is read once per call; Math.max keeps the loops branch-free for the JIT.
+    @Override
+    public void calculateLateFees(long[] daysLate, double[] fees, int length) {
+        long rate = centsPerDay();
+        for (int i = 0; i < length; i++) {
+            fees[i] = Math.max(0L, daysLate[i]) * rate / 100.0;
+        }
+    }
+
+    @Override
+    public void calculateLateFeesInCents(long[] daysLate, long[] cents, int length) {
+        long rate = centsPerDay();
+        for (int i = 0; i < length; i++) {
+            cents[i] = Math.max(0L, daysLate[i]) * rate;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package edu.trincoll.service;
+
+import edu.trincoll.model.MembershipType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Immutable snapshot of the {@link MembershipPolicy} for every membership type.
+ *
+ * Loaded from properties keyed by the lower-case type name, e.g.
+ * <pre>
+ * regular.max-books=3
+ * regular.loan-days=14
+ * regular.late-fee-cents-per-day=50
+ * </pre>
+ * Any key that is missing keeps its built-in default.
+ */
+public final class PolicyTable {
+    private static final PolicyTable DEFAULTS = new PolicyTable(defaultPolicies());
+
+    private final Map<MembershipType, MembershipPolicy> policies;
+
+    private PolicyTable(EnumMap<MembershipType, MembershipPolicy> policies) {
+        for (MembershipType type : MembershipType.values()) {
+            if (!policies.containsKey(type)) {
+                throw new IllegalArgumentException("No policy for membership type " + type);
+            }
+        }
+        this.policies = Collections.unmodifiableMap(policies);
+    }
+
+    public static PolicyTable defaults() {
+        return DEFAULTS;
+    }
+
+    public static PolicyTable fromProperties(Properties properties) {
+        EnumMap<MembershipType, MembershipPolicy> policies = new EnumMap<>(MembershipType.class);
+        for (MembershipType type : MembershipType.values()) {
+            MembershipPolicy fallback = DEFAULTS.get(type);
+            String prefix = type.name().toLowerCase(Locale.ROOT) + ".";
+            policies.put(type, new MembershipPolicy(
+                    intValue(properties, prefix + "max-books", fallback.maxBooks()),
+                    intValue(properties, prefix + "loan-days", fallback.loanPeriodDays()),
+                    longValue(properties, prefix + "late-fee-cents-per-day", fallback.lateFeeCentsPerDay())));
+        }
+        return new PolicyTable(policies);
+    }
+
+    public MembershipPolicy get(MembershipType type) {
+        return policies.get(type);
+    }
+
+    private static EnumMap<MembershipType, MembershipPolicy> defaultPolicies() {
+        EnumMap<MembershipType, MembershipPolicy> policies = new EnumMap<>(MembershipType.class);
+        policies.put(MembershipType.REGULAR, new MembershipPolicy(3, 14, 50));
+        policies.put(MembershipType.PREMIUM, new MembershipPolicy(10, 30, 0));
+        policies.put(MembershipType.STUDENT, new MembershipPolicy(5, 21, 25));
+        return policies;
+    }
+
+    private static int intValue(Properties properties, String key, int fallback) {
+        String value = properties.getProperty(key);
+        return value == null ? fallback : Integer.parseInt(value.trim());
+    }
+
+    private static long longValue(Properties properties, String key, long fallback) {
+        String value = properties.getProperty(key);
+        return value == null ? fallback : Long.parseLong(value.trim());
+    }
+
+    @Override
+    public String toString() {
+        return "PolicyTable" + policies;
+    }
+}
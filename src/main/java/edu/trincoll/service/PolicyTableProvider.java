@@ -0,0 +1,88 @@
+package edu.trincoll.service;
+
+import edu.trincoll.model.CatalogVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Properties;
+
+/**
+ * Holds the current {@link PolicyTable}. Readers just read a volatile field; when
+ * {@code library.policy.file} is set, the file is polled and a changed file is
+ * parsed into a new table that replaces the old one in a single write and moves
+ * the {@link CatalogVersion}. A file
+ * that fails to parse is logged once and ignored until it changes again,
+ * leaving the previous table in place.
+ */
+@Component
+public class PolicyTableProvider {
+    private static final Logger log = LoggerFactory.getLogger(PolicyTableProvider.class);
+
+    private final Path file;
+    private volatile PolicyTable current;
+    private FileTime checkedModifiedTime;
+    private boolean unreadable;
+
+    @Autowired
+    public PolicyTableProvider(@Value("${library.policy.file:}") String file) {
+        this.file = file == null || file.isBlank() ? null : Path.of(file);
+        this.current = PolicyTable.defaults();
+        reload();
+    }
+
+    PolicyTableProvider(PolicyTable table) {
+        this.file = null;
+        this.current = table;
+    }
+
+    /** Provider fixed to the built-in table, for code constructed outside Spring. */
+    public static PolicyTableProvider defaults() {
+        return new PolicyTableProvider(PolicyTable.defaults());
+    }
+
+    public PolicyTable current() {
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${library.policy.reload-interval-ms:5000}")
+    public synchronized boolean reload() {
+        if (file == null) return false;
+        FileTime modified;
+        try {
+            modified = Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            if (!unreadable) log.warn("Could not read membership policies from {}; keeping {}", file, current, e);
+            unreadable = true;
+            return false;
+        }
+        unreadable = false;
+        // checked versions are skipped whether or not they parsed
+        if (modified.equals(checkedModifiedTime)) return false;
+        checkedModifiedTime = modified;
+        try {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            PolicyTable table = PolicyTable.fromProperties(properties);
+            current = table;
+            CatalogVersion.changed();   // reports priced with the old table are stale
+            log.info("Loaded membership policies from {}: {}", file, table);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load membership policies from {} (modified {}); keeping {} until the file changes",
+                    file, modified, current, e);
+            return false;
+        }
+    }
+}
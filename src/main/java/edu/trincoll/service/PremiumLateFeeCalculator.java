@@ -1,11 +1,18 @@
 package edu.trincoll.service;
 
+import edu.trincoll.model.MembershipType;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component("premiumLateFeeCalculator")
-public class PremiumLateFeeCalculator implements LateFeeCalculator {
-    @Override
-    public double calculateLateFee(long daysLate) {
-        return 0.0;
+public class PremiumLateFeeCalculator extends PerDayLateFeeCalculator {
+
+    public PremiumLateFeeCalculator() {
+        this(PolicyTableProvider.defaults());
+    }
+
+    @Autowired
+    public PremiumLateFeeCalculator(PolicyTableProvider policies) {
+        super(policies, MembershipType.PREMIUM);
     }
 }
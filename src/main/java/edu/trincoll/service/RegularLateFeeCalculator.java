@@ -1,12 +1,19 @@
 //Taha
 package edu.trincoll.service;
 
+import edu.trincoll.model.MembershipType;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
-public class RegularLateFeeCalculator implements LateFeeCalculator {
-    @Override
-    public double calculateLateFee(long daysLate) {
-        return daysLate * 0.50;
+public class RegularLateFeeCalculator extends PerDayLateFeeCalculator {
+
+    public RegularLateFeeCalculator() {
+        this(PolicyTableProvider.defaults());
+    }
+
+    @Autowired
+    public RegularLateFeeCalculator(PolicyTableProvider policies) {
+        super(policies, MembershipType.REGULAR);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package edu.trincoll.service;
+
+/**
+ * A circulation rule forbids the request in the member's or book's current
+ * state; answered with 409.
+ */
+public class RuleViolationException extends IllegalStateException {
+
+    public RuleViolationException(String message) {
+        super(message);
+    }
+}
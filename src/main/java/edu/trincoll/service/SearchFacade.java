@@ -1,7 +1,10 @@
 package edu.trincoll.service;
 
+import edu.trincoll.jfr.SearchEvent;
 import edu.trincoll.model.Book;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -13,7 +16,28 @@ public class SearchFacade {
         this.bookSearchService = bookSearchService;
     }
 
+    @Timed(value = "library.search", description = "Catalog search time")
+    @Transactional(readOnly = true)
     public List<Book> search(String searchTerm, String searchType) {
+        SearchEvent event = new SearchEvent();
+        event.searchType = searchType;
+        event.term = searchTerm;
+        event.start();
+        String result = "error";
+        try {
+            List<Book> books = find(searchTerm, searchType);
+            event.books = books.size();
+            result = "ok";
+            return books;
+        } catch (RuntimeException e) {
+            result = e.getClass().getSimpleName() + ": " + e.getMessage();
+            throw e;
+        } finally {
+            event.finish(result);
+        }
+    }
+
+    private List<Book> find(String searchTerm, String searchType) {
         if (searchType == null) {
             throw new IllegalArgumentException("Invalid search type");
         }
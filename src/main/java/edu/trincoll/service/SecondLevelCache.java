@@ -0,0 +1,35 @@
+package edu.trincoll.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts Hibernate's second-level cache for rows changed with plain SQL
+ * (imports, snapshot loads, checkout counts). Changes made through JPA,
+ * including bulk JPQL updates, are invalidated by Hibernate itself.
+ */
+@Component
+public class SecondLevelCache {
+    private final Cache cache;
+
+    public SecondLevelCache(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    /**
+     * Drops the entity and natural-id regions of {@code entityClass} and every
+     * cached query result, which may list stale rows.
+     */
+    public void evict(Class<?> entityClass) {
+        cache.evictEntityData(entityClass);
+        cache.evictNaturalIdData(entityClass);
+        cache.evictQueryRegions();
+    }
+
+    /** Drops one cached entity; its natural id and cached queries are left alone. */
+    public void evict(Class<?> entityClass, Object id) {
+        cache.evictEntityData(entityClass, id);
+    }
+}
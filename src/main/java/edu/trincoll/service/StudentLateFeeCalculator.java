@@ -1,14 +1,18 @@
 package edu.trincoll.service;
 
+import edu.trincoll.model.MembershipType;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component("studentLateFeeCalculator")
-public class StudentLateFeeCalculator implements LateFeeCalculator {
-    private final double ratePerDay = 0.25; // discounted
+public class StudentLateFeeCalculator extends PerDayLateFeeCalculator {
 
-    @Override
-    public double calculateLateFee(long daysLate) {
-        if (daysLate <= 0) return 0.0;
-        return daysLate * ratePerDay;
+    public StudentLateFeeCalculator() {
+        this(PolicyTableProvider.defaults());
+    }
+
+    @Autowired
+    public StudentLateFeeCalculator(PolicyTableProvider policies) {
+        super(policies, MembershipType.STUDENT);
     }
 }
@@ -0,0 +1,18 @@
+package edu.trincoll.service.batch;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Outcome of one invocation of {@link LateFeeAccrualJob}.
+ *
+ * @param resumedAfterId book id the run started after (0 for a fresh run)
+ * @param rows           accrual rows written by this invocation
+ */
+public record AccrualRun(LocalDate runDate, long resumedAfterId, long rows, int chunks, Duration elapsed) {
+
+    public double rowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0.0 : rows * 1_000_000_000.0 / nanos;
+    }
+}
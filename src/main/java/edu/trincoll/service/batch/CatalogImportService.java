@@ -0,0 +1,169 @@
+package edu.trincoll.service.batch;
+
+import edu.trincoll.admission.LaneScheduler;
+import edu.trincoll.admission.WorkLane;
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Loads a branch catalog from a CSV/TSV file with the columns
+ * {@code isbn, title, author, publication_date} (ISO dates).
+ *
+ * The file is streamed in chunks; each chunk is parsed in parallel, checked
+ * against the set of ISBNs already in the catalog (or earlier in the file), and
+ * persisted in its own transaction. With sequence ids and
+ * {@code hibernate.jdbc.batch_size}, the inserts go out as JDBC batches.
+ */
+@Service
+public class CatalogImportService {
+    private static final Logger log = LoggerFactory.getLogger(CatalogImportService.class);
+    static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int batchSize;
+    private final LaneScheduler laneScheduler;
+
+    @Autowired
+    public CatalogImportService(BookRepository bookRepository,
+                                EntityManager entityManager,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${library.import.chunk-size:5000}") int chunkSize,
+                                @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+                                LaneScheduler laneScheduler) {
+        this.bookRepository = bookRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.laneScheduler = laneScheduler;
+    }
+
+    public ImportReport importCatalog(Path path) {
+        long start = System.nanoTime();
+        Set<String> isbns = new HashSet<>(bookRepository.findAllIsbns());
+        long imported = 0;
+        long rejected = 0;
+        List<ImportReport.RejectedRow> rejections = new ArrayList<>();
+
+        try (DelimitedFile file = DelimitedFile.open(path)) {
+            Columns columns = new Columns(file);
+            String[] lines = new String[chunkSize];
+            long[] lineNumbers = new long[chunkSize];
+            Object[] parsed = new Object[chunkSize];
+            int n;
+            while ((n = file.readChunk(lines, lineNumbers)) > 0) {
+                int count = n;
+                Arrays.parallelSetAll(parsed, i -> i < count ? parse(file, columns, lines[i]) : null);
+
+                List<Book> books = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    String reason;
+                    if (parsed[i] instanceof Book book) {
+                        reason = isbns.add(book.getIsbn()) ? null : "duplicate ISBN " + book.getIsbn();
+                        if (reason == null) books.add(book);
+                    } else {
+                        reason = (String) parsed[i];
+                    }
+                    if (reason != null) {
+                        rejected++;
+                        if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                            rejections.add(new ImportReport.RejectedRow(lineNumbers[i], reason));
+                        }
+                    }
+                }
+                persist(books);
+                imported += books.size();
+                log.debug("Imported {} books so far ({} rejected)", imported, rejected);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read catalog file " + path, e);
+        }
+
+        ImportReport report = new ImportReport(imported, rejected, List.copyOf(rejections),
+                Duration.ofNanos(System.nanoTime() - start));
+        log.info("Catalog import from {}: {} imported, {} rejected in {} ms ({} rows/s)",
+                path, imported, rejected, report.elapsed().toMillis(), Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    private void persist(List<Book> books) {
+        if (books.isEmpty()) return;
+        laneScheduler.run(WorkLane.BATCH, () -> transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < books.size(); i++) {
+                entityManager.persist(books.get(i));
+                if ((i + 1) % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }));
+    }
+
+    /**
+     * @return the parsed {@link Book}, or a rejection reason
+     */
+    private static Object parse(DelimitedFile file, Columns columns, String line) {
+        String[] fields;
+        try {
+            fields = file.split(line);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        String isbn = field(fields, columns.isbn);
+        String title = field(fields, columns.title);
+        String author = field(fields, columns.author);
+        String date = field(fields, columns.publicationDate);
+        if (isbn.isEmpty()) return "ISBN is required";
+        if (title.isEmpty()) return "Title is required";
+        if (author.isEmpty()) return "Author is required";
+        if (date.isEmpty()) return "Publication date is required";
+
+        Book book = new Book();
+        book.setIsbn(isbn);
+        book.setTitle(title);
+        book.setAuthor(author);
+        try {
+            book.setPublicationDate(LocalDate.parse(date));
+        } catch (DateTimeParseException e) {
+            return "invalid publication date '" + date + "'";
+        }
+        book.setStatus(BookStatus.AVAILABLE);
+        return book;
+    }
+
+    private static String field(String[] fields, int index) {
+        return index < fields.length ? fields[index] : "";
+    }
+
+    private record Columns(int isbn, int title, int author, int publicationDate) {
+        Columns(DelimitedFile file) {
+            this(file.requireColumn("isbn"), file.requireColumn("title"),
+                    file.requireColumn("author"), file.requireColumn("publication_date"));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package edu.trincoll.service.batch;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import.
+ *
+ * @param rejections the first rejected rows, capped so a bad file cannot exhaust memory;
+ *                   {@code rejected} is the full count
+ */
+public record ImportReport(long imported, long rejected, List<RejectedRow> rejections, Duration elapsed) {
+
+    public double rowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0.0 : (imported + rejected) * 1_000_000_000.0 / nanos;
+    }
+
+    public record RejectedRow(long lineNumber, String reason) {
+    }
+}
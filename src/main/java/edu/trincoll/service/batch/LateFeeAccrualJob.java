@@ -0,0 +1,267 @@
+package edu.trincoll.service.batch;
+
+import edu.trincoll.admission.LaneScheduler;
+import edu.trincoll.admission.WorkLane;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.JobCheckpoint;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.JobCheckpointRepository;
+import edu.trincoll.repository.OverdueLoan;
+import edu.trincoll.service.LateFeeCalculatorFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Nightly job that assesses late fees on every overdue loan without waiting for
+ * the book to be returned.
+ *
+ * Overdue loans are read in book-id order with keyset pagination. Each chunk is
+ * priced through {@link LateFeeCalculatorFactory}, written with one JDBC batch and
+ * committed together with the checkpoint, so a crashed run resumes after the last
+ * committed chunk. Re-running a finished night is a no-op.
+ *
+ * A run left unfinished is picked up again when the application starts, and
+ * one left unfinished on an earlier night is completed, for that night's date,
+ * before a new night starts.
+ */
+@Component
+public class LateFeeAccrualJob implements ApplicationListener<ApplicationReadyEvent> {
+    static final String JOB_NAME = "late-fee-accrual";
+
+    private static final Logger log = LoggerFactory.getLogger(LateFeeAccrualJob.class);
+
+    private static final String UPSERT_ACCRUAL = """
+            MERGE INTO late_fee_accruals (book_id, member_email, accrual_date, days_late, fee_cents)
+            KEY (book_id, accrual_date) VALUES (?, ?, ?, ?, ?)""";
+
+    private final BookRepository bookRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final LateFeeCalculatorFactory lateFeeCalculatorFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final LaneScheduler laneScheduler;
+    private final Clock clock;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    public LateFeeAccrualJob(BookRepository bookRepository,
+                             JobCheckpointRepository checkpointRepository,
+                             LateFeeCalculatorFactory lateFeeCalculatorFactory,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${library.accrual.chunk-size:1000}") int chunkSize,
+                             LaneScheduler laneScheduler,
+                             Clock clock) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunk size must be positive");
+        this.bookRepository = bookRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.lateFeeCalculatorFactory = lateFeeCalculatorFactory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.laneScheduler = laneScheduler;
+        this.clock = clock;
+    }
+
+    @Scheduled(cron = "${library.accrual.cron:-}")
+    public void runNightly() {
+        run();
+    }
+
+    /**
+     * Accrues fees for today, first finishing any run interrupted on an earlier night.
+     *
+     * @return today's run
+     */
+    public AccrualRun run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Late fee accrual is already running");
+        }
+        try {
+            LocalDate today = LocalDate.now(clock);
+            unfinishedRunDate()
+                    .filter(date -> date.isBefore(today))
+                    .ifPresent(date -> {
+                        log.info("Finishing interrupted late fee accrual for {} before starting {}", date, today);
+                        run(date);
+                    });
+            return run(today);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Finishes an interrupted run for the date it was started on, without
+     * starting a new one.
+     *
+     * @return the finished run, or empty when nothing was interrupted or the job is already running
+     */
+    public Optional<AccrualRun> resume() {
+        if (!running.compareAndSet(false, true)) return Optional.empty();
+        try {
+            return unfinishedRunDate().map(date -> {
+                log.info("Resuming interrupted late fee accrual for {}", date);
+                return run(date);
+            });
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        // off the startup thread: a long resumed run must not hold up the application
+        Thread.ofVirtual().name("late-fee-accrual-resume").start(() -> {
+            try {
+                resume();
+            } catch (RuntimeException e) {
+                log.warn("Could not resume late fee accrual; the next scheduled run will retry", e);
+            }
+        });
+    }
+
+    private Optional<LocalDate> unfinishedRunDate() {
+        JobCheckpoint checkpoint = transactionTemplate.execute(status ->
+                checkpointRepository.findById(JOB_NAME).orElse(null));
+        return checkpoint == null || checkpoint.isCompleted()
+                ? Optional.empty()
+                : Optional.of(checkpoint.getRunDate());
+    }
+
+    private AccrualRun run(LocalDate today) {
+        JobCheckpoint checkpoint = transactionTemplate.execute(status -> startOrResume(today));
+        long afterId = checkpoint.getLastProcessedId();
+        long resumedAfterId = afterId;
+        long rows = 0;
+        int chunks = 0;
+        long start = System.nanoTime();
+
+        if (checkpoint.isCompleted()) {
+            log.info("Late fee accrual for {} already completed", today);
+        } else {
+            if (afterId > 0) {
+                log.info("Resuming late fee accrual for {} after book id {}", today, afterId);
+            }
+            boolean done = false;
+            while (!done) {
+                long from = afterId;
+                // each chunk is admitted separately, so circulation can overtake a long run
+                Chunk chunk = laneScheduler.call(WorkLane.BATCH,
+                        () -> transactionTemplate.execute(status -> processChunk(today, from)));
+                rows += chunk.rows();
+                chunks++;
+                afterId = chunk.lastId();
+                done = chunk.last();
+                log.debug("Accrued chunk {} ({} rows, last book id {})", chunks, chunk.rows(), afterId);
+            }
+        }
+
+        AccrualRun run = new AccrualRun(today, resumedAfterId, rows, chunks, Duration.ofNanos(System.nanoTime() - start));
+        log.info("Late fee accrual for {}: {} rows in {} chunks, {} ms ({} rows/s)",
+                today, run.rows(), run.chunks(), run.elapsed().toMillis(), Math.round(run.rowsPerSecond()));
+        return run;
+    }
+
+    private JobCheckpoint startOrResume(LocalDate today) {
+        JobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+                .orElseGet(() -> new JobCheckpoint(JOB_NAME, today));
+        if (!today.equals(checkpoint.getRunDate())) {
+            checkpoint.setRunDate(today);
+            checkpoint.setLastProcessedId(0);
+            checkpoint.setCompleted(false);
+        }
+        return checkpointRepository.save(checkpoint);
+    }
+
+    private Chunk processChunk(LocalDate today, long afterId) {
+        List<OverdueLoan> loans = bookRepository.findOverdueLoansAfter(
+                BookStatus.CHECKED_OUT, today, afterId, Limit.of(chunkSize));
+        boolean last = loans.size() < chunkSize;
+        long lastId = loans.isEmpty() ? afterId : loans.get(loans.size() - 1).bookId();
+
+        if (!loans.isEmpty()) {
+            long[] daysLate = new long[loans.size()];
+            long[] feeCents = new long[loans.size()];
+            calculateFees(loans, today, daysLate, feeCents);
+            jdbcTemplate.batchUpdate(UPSERT_ACCRUAL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    OverdueLoan loan = loans.get(i);
+                    ps.setLong(1, loan.bookId());
+                    ps.setString(2, loan.memberEmail());
+                    ps.setDate(3, Date.valueOf(today));
+                    ps.setLong(4, daysLate[i]);
+                    ps.setLong(5, feeCents[i]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return loans.size();
+                }
+            });
+        }
+
+        JobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+                .orElseThrow(() -> new IllegalStateException("Checkpoint disappeared for " + JOB_NAME));
+        checkpoint.setLastProcessedId(lastId);
+        checkpoint.setCompleted(last);
+        checkpointRepository.save(checkpoint);
+        return new Chunk(loans.size(), lastId, last);
+    }
+
+    /**
+     * Prices a chunk one membership type at a time so each calculator sees a
+     * dense array through its bulk method.
+     */
+    private void calculateFees(List<OverdueLoan> loans, LocalDate today, long[] daysLate, long[] feeCents) {
+        int n = loans.size();
+        long todayEpochDay = today.toEpochDay();
+        for (int i = 0; i < n; i++) {
+            daysLate[i] = todayEpochDay - loans.get(i).dueDate().toEpochDay();
+        }
+
+        long[] typeDays = new long[n];
+        long[] typeCents = new long[n];
+        int[] positions = new int[n];
+        for (MembershipType type : MembershipType.values()) {
+            int m = 0;
+            for (int i = 0; i < n; i++) {
+                if (loans.get(i).membershipType() == type) {
+                    typeDays[m] = daysLate[i];
+                    positions[m++] = i;
+                }
+            }
+            if (m == 0) continue;
+            lateFeeCalculatorFactory.getCalculatorFor(type).calculateLateFeesInCents(typeDays, typeCents, m);
+            for (int j = 0; j < m; j++) {
+                feeCents[positions[j]] = typeCents[j];
+            }
+        }
+    }
+
+    private record Chunk(int rows, long lastId, boolean last) {
+    }
+}
@@ -0,0 +1,193 @@
+package edu.trincoll.service.batch;
+
+import edu.trincoll.admission.LaneScheduler;
+import edu.trincoll.admission.WorkLane;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.service.MemberService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Creates or updates members in bulk from a CSV/TSV file with the columns
+ * {@code name, email} and an optional {@code membership_type}.
+ *
+ * Rows are de-duplicated by email in memory (the first occurrence wins) and
+ * upserted with one JDBC batch of H2 {@code MERGE} statements per chunk: new
+ * emails are inserted, existing members get the new name and type while their
+ * checkout count and join date are left alone.
+ */
+@Service
+public class MemberImportService {
+    private static final Logger log = LoggerFactory.getLogger(MemberImportService.class);
+
+    private static final String UPSERT_MEMBER = """
+            MERGE INTO members m
+            USING (SELECT CAST(? AS VARCHAR(255)) AS name, CAST(? AS VARCHAR(255)) AS email,
+                          CAST(? AS VARCHAR(255)) AS membership_type, CAST(? AS DATE) AS member_since) s
+            ON m.email = s.email
+            WHEN MATCHED THEN UPDATE SET m.name = s.name, m.membership_type = s.membership_type
+            WHEN NOT MATCHED THEN INSERT (name, email, membership_type, member_since, books_checked_out)
+                VALUES (s.name, s.email, s.membership_type, s.member_since, 0)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MemberService memberService;
+    private final int chunkSize;
+    private final LaneScheduler laneScheduler;
+    private final Clock clock;
+
+    @Autowired
+    public MemberImportService(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               MemberService memberService,
+                               @Value("${library.import.chunk-size:5000}") int chunkSize,
+                               LaneScheduler laneScheduler,
+                               Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.memberService = memberService;
+        this.chunkSize = chunkSize;
+        this.laneScheduler = laneScheduler;
+        this.clock = clock;
+    }
+
+    /**
+     * @param defaultType membership type for rows without a {@code membership_type} value
+     */
+    public ImportReport importMembers(Path path, MembershipType defaultType) {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now(clock);
+        Set<String> emails = new HashSet<>();
+        long imported = 0;
+        long rejected = 0;
+        List<ImportReport.RejectedRow> rejections = new ArrayList<>();
+
+        try (DelimitedFile file = DelimitedFile.open(path)) {
+            Columns columns = new Columns(file);
+            String[] lines = new String[chunkSize];
+            long[] lineNumbers = new long[chunkSize];
+            Object[] parsed = new Object[chunkSize];
+            int n;
+            while ((n = file.readChunk(lines, lineNumbers)) > 0) {
+                int count = n;
+                Arrays.parallelSetAll(parsed, i -> i < count ? parse(file, columns, lines[i], defaultType) : null);
+
+                List<MemberRow> rows = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    String reason;
+                    if (parsed[i] instanceof MemberRow row) {
+                        reason = emails.add(row.email()) ? null : "duplicate email " + row.email();
+                        if (reason == null) rows.add(row);
+                    } else {
+                        reason = (String) parsed[i];
+                    }
+                    if (reason != null) {
+                        rejected++;
+                        if (rejections.size() < CatalogImportService.MAX_REPORTED_REJECTIONS) {
+                            rejections.add(new ImportReport.RejectedRow(lineNumbers[i], reason));
+                        }
+                    }
+                }
+                upsert(rows, today);
+                imported += rows.size();
+                log.debug("Imported {} members so far ({} rejected)", imported, rejected);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read member file " + path, e);
+        }
+
+        ImportReport report = new ImportReport(imported, rejected, List.copyOf(rejections),
+                Duration.ofNanos(System.nanoTime() - start));
+        log.info("Member import from {}: {} imported, {} rejected in {} ms ({} rows/s)",
+                path, imported, rejected, report.elapsed().toMillis(), Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    private void upsert(List<MemberRow> rows, LocalDate today) {
+        if (rows.isEmpty()) return;
+        Date memberSince = Date.valueOf(today);
+        laneScheduler.run(WorkLane.BATCH, () -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(UPSERT_MEMBER, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    MemberRow row = rows.get(i);
+                    ps.setString(1, row.name());
+                    ps.setString(2, row.email());
+                    ps.setString(3, row.membershipType().name());
+                    ps.setDate(4, memberSince);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return rows.size();
+                }
+            });
+            // the rows went in with plain SQL, so cached members are stale once this chunk commits
+            memberService.evictAll();
+        }));
+    }
+
+    /**
+     * @return the parsed {@link MemberRow}, or a rejection reason
+     */
+    private static Object parse(DelimitedFile file, Columns columns, String line, MembershipType defaultType) {
+        String[] fields;
+        try {
+            fields = file.split(line);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        String name = field(fields, columns.name);
+        String email = field(fields, columns.email);
+        String type = field(fields, columns.membershipType);
+        if (name.isEmpty()) return "Name is required";
+        if (email.isEmpty()) return "Email is required";
+        int at = email.indexOf('@');
+        if (at <= 0 || at == email.length() - 1) return "invalid email '" + email + "'";
+
+        MembershipType membershipType = defaultType;
+        if (!type.isEmpty()) {
+            try {
+                membershipType = MembershipType.valueOf(type.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return "unknown membership type '" + type + "'";
+            }
+        }
+        return new MemberRow(name, email, membershipType);
+    }
+
+    private static String field(String[] fields, int index) {
+        return index >= 0 && index < fields.length ? fields[index] : "";
+    }
+
+    private record MemberRow(String name, String email, MembershipType membershipType) {
+    }
+
+    private record Columns(int name, int email, int membershipType) {
+        Columns(DelimitedFile file) {
+            this(file.requireColumn("name"), file.requireColumn("email"), file.column("membership_type"));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package edu.trincoll.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.trincoll.admission.LaneScheduler;
+import edu.trincoll.admission.WorkLane;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes whole tables as newline-delimited JSON, one object per row.
+ *
+ * Rows come from a forward-only cursor as unmanaged projections, so nothing
+ * accumulates in the persistence context, and each row is serialized straight
+ * into the output stream. The stream is flushed every {@link #FLUSH_EVERY}
+ * rows; a slow reader blocks the write and with it the cursor, so heap use
+ * does not depend on table size. An export holds a slot of the reporting
+ * {@link WorkLane} until its last row is written, since its read-pool
+ * connection is held that long too.
+ */
+@Service
+public class CatalogExportService {
+    static final int FLUSH_EVERY = 1000;
+
+    private final BookRepository bookRepository;
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readTransaction;
+    private final ObjectWriter rowWriter;
+    private final LaneScheduler laneScheduler;
+
+    @Autowired
+    public CatalogExportService(BookRepository bookRepository,
+                                MemberRepository memberRepository,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                LaneScheduler laneScheduler) {
+        this.bookRepository = bookRepository;
+        this.memberRepository = memberRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.rowWriter = objectMapper.writer()
+                .withRootValueSeparator((String) null)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.laneScheduler = laneScheduler;
+    }
+
+    /** @return number of rows written */
+    public long exportBooks(OutputStream out) {
+        return export(bookRepository::streamAllRows, out);
+    }
+
+    /** @return number of rows written */
+    public long exportMembers(OutputStream out) {
+        return export(memberRepository::streamAllRows, out);
+    }
+
+    /** Current loans: every checked-out book with its borrower. */
+    public long exportLoans(OutputStream out) {
+        return export(() -> bookRepository.streamLoans(BookStatus.CHECKED_OUT), out);
+    }
+
+    private <T> long export(Supplier<Stream<T>> query, OutputStream out) {
+        Long written = laneScheduler.call(WorkLane.EXPORT, () -> readTransaction.execute(status -> {
+            try (Stream<T> rows = query.get(); JsonGenerator json = rowWriter.createGenerator(out)) {
+                long n = 0;
+                for (Iterator<T> it = rows.iterator(); it.hasNext(); ) {
+                    rowWriter.writeValue(json, it.next());
+                    json.writeRaw('\n');
+                    if (++n % FLUSH_EVERY == 0) {
+                        json.flush();
+                    }
+                }
+                json.flush();
+                return n;
+            } catch (IOException e) {
+                // usually the client went away; ends the transaction and closes the cursor
+                throw new UncheckedIOException(e);
+            }
+        }));
+        return written == null ? 0 : written;
+    }
+}
@@ -0,0 +1,62 @@
+package edu.trincoll.service.report;
+
+import edu.trincoll.jfr.ReportEvent;
+import edu.trincoll.metrics.StatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Emits a {@link ReportEvent} for every report and, when a meter registry is
+ * available, times it and counts its SQL statements, tagged by report type.
+ */
+class InstrumentedReportGenerator implements ReportGenerator {
+    private final ReportGenerator delegate;
+    private final Timer timer;
+    private final DistributionSummary statements;
+
+    InstrumentedReportGenerator(ReportGenerator delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        if (meterRegistry == null) {
+            this.timer = null;
+            this.statements = null;
+            return;
+        }
+        this.timer = Timer.builder("library.report")
+                .description("Report generation time")
+                .tag("type", delegate.getType())
+                .register(meterRegistry);
+        this.statements = DistributionSummary.builder("library.report.statements")
+                .description("SQL statements issued per report")
+                .tag("type", delegate.getType())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getType() {
+        return delegate.getType();
+    }
+
+    @Override
+    public String generateReport() {
+        ReportEvent event = new ReportEvent();
+        event.reportType = delegate.getType();
+        event.start();
+        long before = StatementCounter.current();
+        String result = "error";
+        try {
+            String report = timer != null ? timer.record(delegate::generateReport) : delegate.generateReport();
+            event.size = report.length();
+            result = "ok";
+            return report;
+        } catch (RuntimeException e) {
+            result = e.getClass().getSimpleName() + ": " + e.getMessage();
+            throw e;
+        } finally {
+            if (statements != null) {
+                statements.record(StatementCounter.current() - before);
+            }
+            event.finish(result);
+        }
+    }
+}
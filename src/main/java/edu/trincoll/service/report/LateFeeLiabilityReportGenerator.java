@@ -0,0 +1,94 @@
+package edu.trincoll.service.report;
+
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.OverdueLoanBucket;
+import edu.trincoll.service.LateFeeCalculator;
+import edu.trincoll.service.LateFeeCalculatorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Projected late fees across all overdue loans, split by membership type.
+ * Overdue loans are fetched pre-grouped by (membership type, due date), so the
+ * work here is proportional to the number of distinct due dates rather than
+ * the number of loans. Fees are evaluated per membership type through the
+ * calculators' bulk cents API.
+ */
+@Component
+public class LateFeeLiabilityReportGenerator implements ReportGenerator {
+    private final BookRepository bookRepository;
+    private final LateFeeCalculatorFactory lateFeeCalculatorFactory;
+    private final Clock clock;
+
+    @Autowired
+    public LateFeeLiabilityReportGenerator(BookRepository bookRepository,
+                                           LateFeeCalculatorFactory lateFeeCalculatorFactory,
+                                           Clock clock) {
+        this.bookRepository = bookRepository;
+        this.lateFeeCalculatorFactory = lateFeeCalculatorFactory;
+        this.clock = clock;
+    }
+
+    @Override public String getType() { return "liability"; }
+
+    @Override
+    public String generateReport() {
+        LocalDate today = LocalDate.now(clock);
+        List<OverdueLoanBucket> buckets = bookRepository.countOverdueLoans(BookStatus.CHECKED_OUT, today);
+
+        MembershipType[] types = MembershipType.values();
+        long[][] daysLate = new long[types.length][];
+        long[][] loans = new long[types.length][];
+        int[] sizes = new int[types.length];
+        for (MembershipType type : types) {
+            daysLate[type.ordinal()] = new long[8];
+            loans[type.ordinal()] = new long[8];
+        }
+
+        for (OverdueLoanBucket bucket : buckets) {
+            int t = bucket.membershipType().ordinal();
+            int n = sizes[t];
+            if (n == daysLate[t].length) {
+                daysLate[t] = Arrays.copyOf(daysLate[t], n * 2);
+                loans[t] = Arrays.copyOf(loans[t], n * 2);
+            }
+            daysLate[t][n] = today.toEpochDay() - bucket.dueDate().toEpochDay();
+            loans[t][n] = bucket.loans();
+            sizes[t] = n + 1;
+        }
+
+        StringBuilder report = new StringBuilder("LATE FEE LIABILITY REPORT\n");
+        report.append("=========================\n");
+        long totalLoans = 0;
+        long totalCents = 0;
+        long[] feeCents = new long[0];
+        for (MembershipType type : types) {
+            int t = type.ordinal();
+            int n = sizes[t];
+            if (feeCents.length < n) {
+                feeCents = new long[n];
+            }
+            LateFeeCalculator calculator = lateFeeCalculatorFactory.getCalculatorFor(type);
+            calculator.calculateLateFeesInCents(daysLate[t], feeCents, n);
+
+            long typeLoans = 0;
+            long typeCents = 0;
+            for (int i = 0; i < n; i++) {
+                typeLoans += loans[t][i];
+                typeCents += feeCents[i] * loans[t][i];
+            }
+            totalLoans += typeLoans;
+            totalCents += typeCents;
+            report.append(String.format("%s: %d overdue loans - $%.2f%n", type, typeLoans, typeCents / 100.0));
+        }
+        report.append(String.format("TOTAL: %d overdue loans - $%.2f%n", totalLoans, totalCents / 100.0));
+        return report.toString();
+    }
+}
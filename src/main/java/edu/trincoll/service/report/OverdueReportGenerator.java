@@ -3,25 +3,36 @@
 package edu.trincoll.service.report;
 
 import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
 import edu.trincoll.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.util.List;
 
 @Component
 public class OverdueReportGenerator implements ReportGenerator {
     private final BookRepository bookRepository;
+    private final Clock clock;
 
     public OverdueReportGenerator(BookRepository bookRepository) {
+        this(bookRepository, Clock.systemDefaultZone());
+    }
+
+    @Autowired
+    public OverdueReportGenerator(BookRepository bookRepository, Clock clock) {
         this.bookRepository = bookRepository;
+        this.clock = clock;
     }
 
     @Override public String getType() { return "overdue"; }
 
     @Override
     public String generateReport() {
-        List<Book> overdueBooks = bookRepository.findByDueDateBefore(LocalDate.now());
+        List<Book> overdueBooks = bookRepository.findByStatusAndDueDateBefore(BookStatus.CHECKED_OUT,
+                LocalDate.now(clock));
         StringBuilder report = new StringBuilder("OVERDUE BOOKS REPORT\n");
         report.append("====================\n");
         for (Book book : overdueBooks) {
@@ -2,7 +2,11 @@
 
 package edu.trincoll.service.report;
 
+import org.springframework.transaction.annotation.Transactional;
+
 public interface ReportGenerator {
     String getType();       // e.g., "overdue", "available", "members"
+    // reports run on the read-only connection pool
+    @Transactional(readOnly = true)
     String generateReport();
 }
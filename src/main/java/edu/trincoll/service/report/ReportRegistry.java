@@ -1,5 +1,7 @@
 package edu.trincoll.service.report;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
@@ -10,8 +12,18 @@ public class ReportRegistry {
     private final Map<String, ReportGenerator> byType;
 
     public ReportRegistry(java.util.List<ReportGenerator> generators) {
+        this(generators, null);
+    }
+
+    /**
+     * Every report emits a JFR event; when {@code meterRegistry} is set it is
+     * also timed and its statements counted.
+     */
+    @Autowired
+    public ReportRegistry(java.util.List<ReportGenerator> generators, MeterRegistry meterRegistry) {
         this.byType = generators.stream()
-                .collect(Collectors.toMap(g -> g.getType().toLowerCase(), g -> g));
+                .collect(Collectors.toMap(g -> g.getType().toLowerCase(),
+                        g -> new InstrumentedReportGenerator(g, meterRegistry)));
     }
 
     public ReportGenerator get(String type) {
@@ -0,0 +1,282 @@
+package edu.trincoll.service.snapshot;
+
+import edu.trincoll.model.CatalogVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Saves the books and members tables to a compact binary file
+ * ({@link SnapshotFile}) and restores them into an empty database at startup,
+ * so an in-memory database survives restarts without replaying imports.
+ *
+ * Snapshots are written every {@code library.snapshot.interval-ms} and when the
+ * application shuts down, to a temporary file that then replaces the previous
+ * snapshot in one rename. At startup the file is memory-mapped, checksummed and
+ * inserted with JDBC batches in a single transaction. Setting
+ * {@code library.snapshot.file} to an empty value turns snapshots off.
+ * Writes are serialized and read through one read-pool connection, which the
+ * pool leaves room for outside the work lanes.
+ */
+@Service
+public class CatalogSnapshotService implements SmartInitializingSingleton, ApplicationListener<ContextClosedEvent> {
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    // must match the allocationSize of Book's books_seq generator
+    private static final int BOOK_ID_ALLOCATION = 50;
+
+    private static final String SELECT_BOOKS =
+            "SELECT id, isbn, title, author, publication_date, due_date, status, checked_out_by FROM books";
+    private static final String SELECT_MEMBERS =
+            "SELECT id, name, email, membership_type, member_since, books_checked_out FROM members";
+    private static final String INSERT_BOOK = """
+            INSERT INTO books (id, isbn, title, author, publication_date, due_date, status, checked_out_by)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)""";
+    private static final String INSERT_MEMBER = """
+            INSERT INTO members (id, name, email, membership_type, member_since, books_checked_out)
+            VALUES (?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate loadTransaction;
+    private final Path file;
+    private final int chunkSize;
+
+    public CatalogSnapshotService(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${library.snapshot.file:}") String file,
+                                  @Value("${library.import.chunk-size:5000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // both tables are read from one consistent view of the database
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.file = file == null || file.isBlank() ? null : Path.of(file);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (file == null) return;
+        try {
+            load();
+        } catch (RuntimeException e) {
+            log.warn("Could not load catalog snapshot {}; starting with an empty catalog", file, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${library.snapshot.interval-ms:900000}",
+            initialDelayString = "${library.snapshot.interval-ms:900000}")
+    public void writeIfEnabled() {
+        if (file == null) return;
+        try {
+            write();
+        } catch (RuntimeException e) {
+            log.warn("Could not write catalog snapshot {}", file, e);
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(ContextClosedEvent event) {
+        writeIfEnabled();
+    }
+
+    /**
+     * Writes a snapshot of the current catalog. An empty catalog is not
+     * written, so a failed startup never replaces a good snapshot.
+     */
+    public synchronized Optional<SnapshotStats> write() {
+        Path target = requireFile();
+        long start = System.nanoTime();
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        SnapshotStats stats = readTransaction.execute(status -> {
+            int books = count("books");
+            int members = count("members");
+            if (books == 0 && members == 0) return null;
+            try {
+                if (target.getParent() != null) Files.createDirectories(target.getParent());
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16);
+                     SnapshotFile.Writer writer = new SnapshotFile.Writer(out, System.currentTimeMillis())) {
+                    writer.writeInt(books);
+                    dump(SELECT_BOOKS, books, writer, rs -> {
+                        writer.writeLong(rs.getLong(1));
+                        writer.writeString(rs.getString(2));
+                        writer.writeString(rs.getString(3));
+                        writer.writeString(rs.getString(4));
+                        writer.writeDate(rs.getObject(5, LocalDate.class));
+                        writer.writeDate(rs.getObject(6, LocalDate.class));
+                        writer.writeString(rs.getString(7));
+                        writer.writeString(rs.getString(8));
+                    });
+                    writer.writeInt(members);
+                    dump(SELECT_MEMBERS, members, writer, rs -> {
+                        writer.writeLong(rs.getLong(1));
+                        writer.writeString(rs.getString(2));
+                        writer.writeString(rs.getString(3));
+                        writer.writeString(rs.getString(4));
+                        writer.writeDate(rs.getObject(5, LocalDate.class));
+                        writer.writeInt(rs.getInt(6));
+                    });
+                }
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                return new SnapshotStats(books, members, Files.size(target),
+                        Duration.ofNanos(System.nanoTime() - start));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write catalog snapshot " + target, e);
+            }
+        });
+        if (stats == null) {
+            log.info("Catalog is empty; not writing snapshot {}", target);
+            return Optional.empty();
+        }
+        log.info("Wrote catalog snapshot {}: {} books, {} members, {} bytes in {} ms",
+                target, stats.books(), stats.members(), stats.bytes(), stats.elapsed().toMillis());
+        return Optional.of(stats);
+    }
+
+    /**
+     * Loads the snapshot into the books and members tables if both are empty
+     * and the snapshot file exists.
+     */
+    public synchronized Optional<SnapshotStats> load() {
+        Path source = requireFile();
+        if (!Files.exists(source)) {
+            log.info("No catalog snapshot at {}", source);
+            return Optional.empty();
+        }
+        if (count("books") > 0 || count("members") > 0) {
+            log.info("Database is not empty; ignoring catalog snapshot {}", source);
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        SnapshotStats stats;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("Snapshot is larger than 2 GB");
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            SnapshotFile.Reader reader = new SnapshotFile.Reader(buffer);
+            stats = loadTransaction.execute(status -> {
+                int books = reader.readInt();
+                insert(INSERT_BOOK, books, ps -> {
+                    ps.setLong(1, reader.readLong());
+                    ps.setString(2, reader.readString());
+                    ps.setString(3, reader.readString());
+                    ps.setString(4, reader.readString());
+                    ps.setObject(5, reader.readDate());
+                    ps.setObject(6, reader.readDate());
+                    ps.setString(7, reader.readString());
+                    ps.setString(8, reader.readString());
+                });
+                int members = reader.readInt();
+                insert(INSERT_MEMBER, members, ps -> {
+                    ps.setLong(1, reader.readLong());
+                    ps.setString(2, reader.readString());
+                    ps.setString(3, reader.readString());
+                    ps.setString(4, reader.readString());
+                    ps.setObject(5, reader.readDate());
+                    ps.setInt(6, reader.readInt());
+                });
+                if (!reader.fullyRead()) throw new IllegalStateException("Trailing data in snapshot " + source);
+                return new SnapshotStats(books, members, size, Duration.ZERO);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read catalog snapshot " + source, e);
+        }
+        restartIds();
+        CatalogVersion.changed();
+        stats = new SnapshotStats(stats.books(), stats.members(), stats.bytes(),
+                Duration.ofNanos(System.nanoTime() - start));
+        log.info("Loaded catalog snapshot {}: {} books, {} members in {} ms",
+                source, stats.books(), stats.members(), stats.elapsed().toMillis());
+        return Optional.of(stats);
+    }
+
+    private void dump(String sql, int expectedRows, SnapshotFile.Writer writer, RowDumper dumper) {
+        int[] rows = {0};
+        jdbcTemplate.query(sql, rs -> {
+            try {
+                dumper.dump(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        });
+        if (rows[0] != expectedRows) {
+            throw new IllegalStateException("Expected " + expectedRows + " rows from '" + sql + "' but read " + rows[0]);
+        }
+    }
+
+    private void insert(String sql, int rows, RowBinder binder) {
+        for (int done = 0; done < rows; done += chunkSize) {
+            int batch = Math.min(chunkSize, rows - done);
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    binder.bind(ps);   // rows are read from the snapshot in order
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch;
+                }
+            });
+        }
+    }
+
+    /** Moves id generation past the loaded ids (H2 DDL commits, so this runs after the load). */
+    private void restartIds() {
+        long maxBookId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM books", Long.class);
+        long maxMemberId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM members", Long.class);
+        // the pooled optimizer hands out the block ending at the sequence value
+        jdbcTemplate.execute("ALTER SEQUENCE books_seq RESTART WITH " + (maxBookId + BOOK_ID_ALLOCATION));
+        jdbcTemplate.execute("ALTER TABLE members ALTER COLUMN id RESTART WITH " + (maxMemberId + 1));
+    }
+
+    private int count(String table) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private Path requireFile() {
+        if (file == null) throw new IllegalStateException("library.snapshot.file is not set");
+        return file;
+    }
+
+    @FunctionalInterface
+    private interface RowDumper {
+        void dump(ResultSet rs) throws SQLException, IOException;
+    }
+
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+}
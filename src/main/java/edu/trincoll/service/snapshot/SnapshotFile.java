@@ -0,0 +1,156 @@
+package edu.trincoll.service.snapshot;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary layout of a catalog snapshot, version 1. All numbers are big-endian.
+ *
+ * <pre>
+ * header   magic "LIBSNAP" + version byte, created-at epoch millis (long)
+ * books    count (int), then per row:
+ *            id (long), isbn, title, author (string),
+ *            publication date, due date (date), status (string), checked out by (string)
+ * members  count (int), then per row:
+ *            id (long), name, email, membership type (string),
+ *            member since (date), books checked out (int)
+ * trailer  CRC-32 of everything before it (long)
+ * </pre>
+ *
+ * A string is a varint of its UTF-8 length plus one (0 means null) followed by
+ * the bytes; a date is its epoch day as an int, {@link Integer#MIN_VALUE} for null.
+ */
+final class SnapshotFile {
+    static final byte[] MAGIC = {'L', 'I', 'B', 'S', 'N', 'A', 'P'};
+    static final byte VERSION = 1;
+    static final int NULL_DATE = Integer.MIN_VALUE;
+
+    private SnapshotFile() {
+    }
+
+    static final class Writer implements AutoCloseable {
+        private final CRC32 crc = new CRC32();
+        private final DataOutputStream out;
+
+        Writer(OutputStream out, long createdAtMillis) throws IOException {
+            this.out = new DataOutputStream(new CheckedOutputStream(out, crc));
+            this.out.write(MAGIC);
+            this.out.writeByte(VERSION);
+            this.out.writeLong(createdAtMillis);
+        }
+
+        void writeInt(int value) throws IOException {
+            out.writeInt(value);
+        }
+
+        void writeLong(long value) throws IOException {
+            out.writeLong(value);
+        }
+
+        void writeDate(LocalDate date) throws IOException {
+            out.writeInt(date == null ? NULL_DATE : Math.toIntExact(date.toEpochDay()));
+        }
+
+        void writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeByte(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length + 1);
+            out.write(bytes);
+        }
+
+        private void writeVarint(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+
+        /** Appends the checksum; the caller still owns the underlying stream. */
+        @Override
+        public void close() throws IOException {
+            out.writeLong(crc.getValue());
+            out.flush();
+        }
+    }
+
+    static final class Reader {
+        private final ByteBuffer buffer;
+        private final long createdAtMillis;
+
+        /**
+         * @throws IOException if the buffer is not a complete version 1 snapshot
+         */
+        Reader(ByteBuffer buffer) throws IOException {
+            this.buffer = buffer;
+            if (buffer.remaining() < MAGIC.length + 1 + Long.BYTES * 2) {
+                throw new IOException("Snapshot is truncated");
+            }
+            ByteBuffer body = buffer.slice(buffer.position(), buffer.remaining() - Long.BYTES);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if (crc.getValue() != buffer.getLong(buffer.limit() - Long.BYTES)) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+            for (byte b : MAGIC) {
+                if (buffer.get() != b) throw new IOException("Not a catalog snapshot");
+            }
+            byte version = buffer.get();
+            if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+            this.createdAtMillis = buffer.getLong();
+            buffer.limit(buffer.limit() - Long.BYTES);
+        }
+
+        long createdAtMillis() {
+            return createdAtMillis;
+        }
+
+        int readInt() {
+            return buffer.getInt();
+        }
+
+        long readLong() {
+            return buffer.getLong();
+        }
+
+        LocalDate readDate() {
+            int epochDay = buffer.getInt();
+            return epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay);
+        }
+
+        String readString() {
+            int length = readVarint() - 1;
+            return length < 0 ? null : new String(bytes(length), StandardCharsets.UTF_8);
+        }
+
+        private byte[] bytes(int length) {
+            if (length > buffer.remaining()) throw new BufferUnderflowException();
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return bytes;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+        }
+
+        boolean fullyRead() {
+            return !buffer.hasRemaining();
+        }
+    }
+}
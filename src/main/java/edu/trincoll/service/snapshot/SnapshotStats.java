@@ -0,0 +1,9 @@
+package edu.trincoll.service.snapshot;
+
+import java.time.Duration;
+
+/**
+ * Outcome of writing or loading a catalog snapshot.
+ */
+public record SnapshotStats(long books, long members, long bytes, Duration elapsed) {
+}
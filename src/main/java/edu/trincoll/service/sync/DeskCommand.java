@@ -0,0 +1,25 @@
+package edu.trincoll.service.sync;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+
+/**
+ * A checkout or return recorded at a desk while offline.
+ *
+ * @param memberEmail borrower for a checkout; ignored for a return
+ * @param recordedAt  when the desk recorded it; orders commands on the same book
+ */
+public record DeskCommand(@NotNull Type type, @NotBlank String isbn, String memberEmail, @NotNull Instant recordedAt) {
+
+    public enum Type { CHECKOUT, RETURN }
+
+    public static DeskCommand checkout(String isbn, String memberEmail, Instant recordedAt) {
+        return new DeskCommand(Type.CHECKOUT, isbn, memberEmail, recordedAt);
+    }
+
+    public static DeskCommand returnOf(String isbn, Instant recordedAt) {
+        return new DeskCommand(Type.RETURN, isbn, null, recordedAt);
+    }
+}
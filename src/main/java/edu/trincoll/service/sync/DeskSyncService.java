@@ -0,0 +1,187 @@
+package edu.trincoll.service.sync;
+
+import edu.trincoll.admission.LaneScheduler;
+import edu.trincoll.admission.WorkLane;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.LoanRow;
+import edu.trincoll.service.LibraryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Applies a batch of offline desk commands through {@link LibraryService}.
+ *
+ * Commands that touch the same book or the same member form one group and are
+ * applied one after another in {@code recordedAt} order; a return joins the
+ * group of the member currently holding the book. Groups share no rows, so up
+ * to {@code library.sync.parallelism} of them run at once on virtual threads.
+ * Each command runs in its own transaction, in the batch {@link WorkLane} so
+ * live circulation goes first, and a rejected command does not stop the rest
+ * of its group. Due dates and late fees are counted from the day a command
+ * was recorded, not the day it is uploaded.
+ */
+@Service
+public class DeskSyncService {
+    private static final Logger log = LoggerFactory.getLogger(DeskSyncService.class);
+
+    private final LibraryService libraryService;
+    private final BookRepository bookRepository;
+    private final int parallelism;
+    private final int maxCommands;
+    private final LaneScheduler laneScheduler;
+    private final Clock clock;
+
+    @Autowired
+    public DeskSyncService(LibraryService libraryService,
+                           BookRepository bookRepository,
+                           @Value("${library.sync.parallelism:4}") int parallelism,
+                           @Value("${library.sync.max-commands:10000}") int maxCommands,
+                           LaneScheduler laneScheduler,
+                           Clock clock) {
+        this.libraryService = libraryService;
+        this.bookRepository = bookRepository;
+        this.parallelism = parallelism;
+        this.maxCommands = maxCommands;
+        this.laneScheduler = laneScheduler;
+        this.clock = clock;
+    }
+
+    public SyncReport apply(List<DeskCommand> commands) {
+        if (commands.size() > maxCommands) {
+            throw new IllegalArgumentException("At most " + maxCommands + " commands per sync");
+        }
+        long start = System.nanoTime();
+        List<int[]> groups = group(commands, currentHolders(commands));
+
+        SyncReport.Outcome[] outcomes = new SyncReport.Outcome[commands.size()];
+        Semaphore permits = new Semaphore(parallelism);
+        // the whole upload, not each command, is held back at most batch-max-delay-ms
+        LaneScheduler.BatchRun batch = laneScheduler.startBatch();
+        // close() waits for every group, which also publishes their outcomes
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int[] group : groups) {
+                executor.execute(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        for (int i : group) {
+                            outcomes[i] = applyOne(batch, i, commands.get(i));
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        SyncReport report = new SyncReport(Arrays.asList(outcomes), groups.size(),
+                Duration.ofNanos(System.nanoTime() - start));
+        log.info("Desk sync: {} commands in {} groups, {} applied, {} rejected in {} ms",
+                commands.size(), report.groups(), report.applied(), report.rejected(), report.elapsed().toMillis());
+        return report;
+    }
+
+    private SyncReport.Outcome applyOne(LaneScheduler.BatchRun batch, int index, DeskCommand command) {
+        LocalDate date = recordedDate(command);
+        try {
+            String result = batch.call(() -> command.type() == DeskCommand.Type.CHECKOUT
+                    ? libraryService.checkoutBook(command.isbn(), command.memberEmail(), date)
+                    : libraryService.returnBook(command.isbn(), date));
+            return new SyncReport.Outcome(index, command.type(), command.isbn(), LibraryService.succeeded(result), result);
+        } catch (RuntimeException e) {
+            return new SyncReport.Outcome(index, command.type(), command.isbn(), false, e.getMessage());
+        }
+    }
+
+    // a desk whose clock runs ahead cannot date a command after today
+    private LocalDate recordedDate(DeskCommand command) {
+        Instant now = clock.instant();
+        Instant at = command.recordedAt() == null || command.recordedAt().isAfter(now) ? now : command.recordedAt();
+        return LocalDate.ofInstant(at, clock.getZone());
+    }
+
+    private Map<String, String> currentHolders(List<DeskCommand> commands) {
+        List<String> returned = commands.stream()
+                .filter(c -> c.type() == DeskCommand.Type.RETURN)
+                .map(DeskCommand::isbn)
+                .distinct()
+                .toList();
+        Map<String, String> holders = new HashMap<>();
+        if (!returned.isEmpty()) {
+            for (LoanRow loan : bookRepository.findLoansByIsbnIn(returned)) {
+                holders.put(loan.isbn(), loan.memberEmail());
+            }
+        }
+        return holders;
+    }
+
+    /**
+     * Splits commands into groups that share no book and no member, each
+     * ordered by {@code recordedAt} and then by position in the batch.
+     *
+     * @param holders current borrower by ISBN, for returns
+     * @return indexes into {@code commands}, one array per group
+     */
+    static List<int[]> group(List<DeskCommand> commands, Map<String, String> holders) {
+        int n = commands.size();
+        int[] parent = new int[n];
+        Map<String, Integer> firstByKey = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            DeskCommand command = commands.get(i);
+            join(parent, firstByKey, "isbn:" + command.isbn(), i);
+            String member = command.type() == DeskCommand.Type.CHECKOUT
+                    ? command.memberEmail()
+                    : holders.get(command.isbn());
+            if (member != null) {
+                join(parent, firstByKey, "member:" + member, i);
+            }
+        }
+
+        Map<Integer, List<Integer>> byRoot = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            byRoot.computeIfAbsent(root(parent, i), r -> new ArrayList<>()).add(i);
+        }
+        Comparator<Integer> order = Comparator
+                .comparing((Integer i) -> commands.get(i).recordedAt(), Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparingInt(i -> i);
+        List<int[]> groups = new ArrayList<>(byRoot.size());
+        for (List<Integer> members : byRoot.values()) {
+            members.sort(order);
+            groups.add(members.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return groups;
+    }
+
+    private static void join(int[] parent, Map<String, Integer> firstByKey, String key, int i) {
+        Integer first = firstByKey.putIfAbsent(key, i);
+        if (first != null) {
+            parent[root(parent, first)] = root(parent, i);
+        }
+    }
+
+    private static int root(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+}
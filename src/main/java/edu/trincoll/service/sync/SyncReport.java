@@ -0,0 +1,28 @@
+package edu.trincoll.service.sync;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of a desk sync.
+ *
+ * @param outcomes one per command, in the order the commands were submitted
+ * @param groups   number of independent groups the commands were split into
+ */
+public record SyncReport(List<Outcome> outcomes, int groups, Duration elapsed) {
+
+    public long applied() {
+        return outcomes.stream().filter(Outcome::applied).count();
+    }
+
+    public long rejected() {
+        return outcomes.size() - applied();
+    }
+
+    /**
+     * @param index   position of the command in the submitted batch
+     * @param message the result reported by {@code LibraryService}, or the error
+     */
+    public record Outcome(int index, DeskCommand.Type type, String isbn, boolean applied, String message) {
+    }
+}
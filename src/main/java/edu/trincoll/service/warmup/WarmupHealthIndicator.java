@@ -0,0 +1,42 @@
+package edu.trincoll.service.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports {@code OUT_OF_SERVICE} while {@link WarmupRunner} is replaying its
+ * profile, with its progress, and {@code UP} with the warm-up report once it
+ * is done or when warm-up is off. Part of the readiness group, so a load
+ * balancer probing {@code /actuator/health/readiness} waits for it.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+    private final WarmupRunner warmupRunner;
+
+    public WarmupHealthIndicator(WarmupRunner warmupRunner) {
+        this.warmupRunner = warmupRunner;
+    }
+
+    @Override
+    public Health health() {
+        WarmupRunner.State state = warmupRunner.state();
+        Health.Builder health = state == WarmupRunner.State.PENDING || state == WarmupRunner.State.RUNNING
+                ? Health.outOfService()
+                : Health.up();
+        health.withDetail("state", state.name().toLowerCase());
+        if (state == WarmupRunner.State.DISABLED) return health.build();
+
+        health.withDetail("elapsedMs", warmupRunner.elapsed().toMillis());
+        WarmupReport report = warmupRunner.report();
+        if (report == null) {
+            return health.withDetail("completed", warmupRunner.completed())
+                    .withDetail("operations", warmupRunner.operations())
+                    .build();
+        }
+        return health.withDetail("completed", report.operations())
+                .withDetail("failures", report.failures())
+                .withDetail("latencyMicros", report.latency())
+                .build();
+    }
+}
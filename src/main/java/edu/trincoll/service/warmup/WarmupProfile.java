@@ -0,0 +1,98 @@
+package edu.trincoll.service.warmup;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.Member;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The operations a warm-up replays, in order. A profile file has one
+ * operation per line; blank lines and lines starting with {@code #} are
+ * skipped:
+ * <pre>
+ * checkout,9780132350884,jane@example.org
+ * search,title,clean code
+ * report,overdue
+ * </pre>
+ * A checkout is followed by the return of the same book, so both paths warm up.
+ */
+public record WarmupProfile(List<Step> steps) {
+    private static final String[] REPORT_TYPES = {"overdue", "available", "members", "liability"};
+
+    public enum Kind { CHECKOUT, SEARCH, REPORT }
+
+    /**
+     * @param first ISBN, search type or report type
+     * @param second member email or search term; null for reports
+     */
+    public record Step(Kind kind, String first, String second) {
+    }
+
+    public WarmupProfile {
+        steps = List.copyOf(steps);
+    }
+
+    public static WarmupProfile load(Path file) {
+        List<Step> steps = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                steps.add(parse(line, number));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new WarmupProfile(steps);
+    }
+
+    private static Step parse(String line, int number) {
+        String[] fields = line.split(",", 3);
+        Kind kind;
+        try {
+            kind = Kind.valueOf(fields[0].strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Line " + number + ": unknown operation " + fields[0]);
+        }
+        int expected = kind == Kind.REPORT ? 2 : 3;
+        if (fields.length != expected) {
+            throw new IllegalArgumentException("Line " + number + ": " + kind.name().toLowerCase(Locale.ROOT)
+                    + " takes " + (expected - 1) + " values");
+        }
+        return new Step(kind, fields[1].strip(), kind == Kind.REPORT ? null : fields[2].strip());
+    }
+
+    /**
+     * A mix built from a sample of the catalog: for each book a checkout and a
+     * search by title, author and ISBN, and a report after every tenth book.
+     */
+    public static WarmupProfile synthetic(List<Book> books, List<Member> members) {
+        List<Step> steps = new ArrayList<>();
+        for (int i = 0; i < books.size(); i++) {
+            Book book = books.get(i);
+            if (!members.isEmpty()) {
+                steps.add(new Step(Kind.CHECKOUT, book.getIsbn(), members.get(i % members.size()).getEmail()));
+            }
+            String title = book.getTitle();
+            int space = title.indexOf(' ');
+            steps.add(new Step(Kind.SEARCH, "title", space > 0 ? title.substring(0, space) : title));
+            steps.add(new Step(Kind.SEARCH, "author", book.getAuthor()));
+            steps.add(new Step(Kind.SEARCH, "isbn", book.getIsbn()));
+            if (i % 10 == 9) {
+                steps.add(new Step(Kind.REPORT, REPORT_TYPES[(i / 10) % REPORT_TYPES.length], null));
+            }
+        }
+        return new WarmupProfile(steps);
+    }
+}
@@ -0,0 +1,21 @@
+package edu.trincoll.service.warmup;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of a warm-up, with the latency of each kind of operation over its
+ * first and its last {@link WarmupRunner#WINDOW} runs.
+ */
+public record WarmupReport(int operations, int failures, Duration elapsed, Map<WarmupProfile.Kind, Latency> latency) {
+
+    /** Median and 99th percentile in microseconds, at the start and the end of the warm-up. */
+    public record Latency(long firstMedian, long firstP99, long lastMedian, long lastP99) {
+    }
+
+    public WarmupReport {
+        latency = Collections.unmodifiableMap(new LinkedHashMap<>(latency));
+    }
+}
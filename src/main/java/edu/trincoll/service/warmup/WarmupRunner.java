@@ -0,0 +1,212 @@
+package edu.trincoll.service.warmup;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.Member;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.service.LibraryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a {@link WarmupProfile} through {@link LibraryService} at startup so
+ * the JIT has compiled circulation, search and the JPA path before real
+ * traffic arrives. Every operation runs in a transaction that is rolled back,
+ * so the catalog and the member cache are left as they were.
+ *
+ * Runs as an {@link ApplicationRunner}, so Spring Boot keeps readiness at
+ * {@code REFUSING_TRAFFIC} until it finishes; {@link WarmupHealthIndicator}
+ * shows its progress in the readiness group. Off unless
+ * {@code library.warmup.enabled} is set. The profile is read from
+ * {@code library.warmup.profile}, or built from a sample of the catalog when
+ * that is empty, and replayed for {@code library.warmup.operations}
+ * operations or {@code library.warmup.max-duration-ms}, whichever ends first.
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    /** Runs of each kind of operation compared at the start and at the end. */
+    static final int WINDOW = 200;
+    private static final int SAMPLE = 50;
+
+    public enum State { DISABLED, PENDING, RUNNING, DONE }
+
+    private final LibraryService libraryService;
+    private final BookRepository bookRepository;
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate rollbackTransaction;
+    private final TransactionTemplate readTransaction;
+    private final boolean enabled;
+    private final Path profile;
+    private final int operations;
+    private final Duration maxDuration;
+
+    private volatile State state;
+    private volatile int completed;
+    private volatile long startedNanos;
+    private volatile WarmupReport report;
+
+    public WarmupRunner(LibraryService libraryService,
+                        BookRepository bookRepository,
+                        MemberRepository memberRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${library.warmup.enabled:false}") boolean enabled,
+                        @Value("${library.warmup.profile:}") String profile,
+                        @Value("${library.warmup.operations:5000}") int operations,
+                        @Value("${library.warmup.max-duration-ms:60000}") long maxDurationMillis) {
+        this.libraryService = libraryService;
+        this.bookRepository = bookRepository;
+        this.memberRepository = memberRepository;
+        this.rollbackTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.profile = profile == null || profile.isBlank() ? null : Path.of(profile);
+        this.operations = operations;
+        this.maxDuration = Duration.ofMillis(maxDurationMillis);
+        this.state = enabled ? State.PENDING : State.DISABLED;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        try {
+            WarmupProfile replay = profile != null ? WarmupProfile.load(profile) : sampleCatalog();
+            if (replay.steps().isEmpty()) {
+                log.info("Warm-up skipped: no operations to replay");
+                return;
+            }
+            report = replay(replay);
+            logReport(report);
+        } catch (RuntimeException e) {
+            // a node that failed to warm up is slow, not broken
+            log.warn("Warm-up failed; starting cold", e);
+        } finally {
+            state = State.DONE;
+        }
+    }
+
+    WarmupReport replay(WarmupProfile replay) {
+        state = State.RUNNING;
+        startedNanos = System.nanoTime();
+        long deadline = startedNanos + maxDuration.toNanos();
+        Map<WarmupProfile.Kind, Samples> samples = new EnumMap<>(WarmupProfile.Kind.class);
+        List<WarmupProfile.Step> steps = replay.steps();
+        int failures = 0;
+        int done = 0;
+        while (done < operations && System.nanoTime() < deadline) {
+            WarmupProfile.Step step = steps.get(done % steps.size());
+            long start = System.nanoTime();
+            try {
+                rollbackTransaction.executeWithoutResult(status -> {
+                    status.setRollbackOnly();
+                    execute(step);
+                });
+            } catch (RuntimeException e) {
+                failures++;
+                log.debug("Warm-up {} failed: {}", step, e.toString());
+            }
+            samples.computeIfAbsent(step.kind(), k -> new Samples()).add(System.nanoTime() - start);
+            completed = ++done;
+        }
+
+        Map<WarmupProfile.Kind, WarmupReport.Latency> latency = new EnumMap<>(WarmupProfile.Kind.class);
+        samples.forEach((kind, s) -> latency.put(kind, s.latency()));
+        return new WarmupReport(done, failures, Duration.ofNanos(System.nanoTime() - startedNanos), latency);
+    }
+
+    private void execute(WarmupProfile.Step step) {
+        switch (step.kind()) {
+            case CHECKOUT -> {
+                libraryService.checkoutBook(step.first(), step.second());
+                libraryService.returnBook(step.first());
+            }
+            case SEARCH -> libraryService.searchBooks(step.second(), step.first());
+            case REPORT -> libraryService.generateReport(step.first());
+        }
+    }
+
+    private WarmupProfile sampleCatalog() {
+        return readTransaction.execute(status -> {
+            List<Book> books = bookRepository.findAll(PageRequest.of(0, SAMPLE)).stream()
+                    .filter(b -> b.getStatus() == BookStatus.AVAILABLE)
+                    .toList();
+            List<Member> members = memberRepository.findAll(PageRequest.of(0, SAMPLE)).getContent();
+            return WarmupProfile.synthetic(books, members);
+        });
+    }
+
+    private static void logReport(WarmupReport report) {
+        log.info("Warm-up: {} operations ({} failed) in {} ms",
+                report.operations(), report.failures(), report.elapsed().toMillis());
+        report.latency().forEach((kind, l) -> log.info(
+                "Warm-up {}: median {} us -> {} us, p99 {} us -> {} us",
+                kind.name().toLowerCase(), l.firstMedian(), l.lastMedian(), l.firstP99(), l.lastP99()));
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public int completed() {
+        return completed;
+    }
+
+    public int operations() {
+        return operations;
+    }
+
+    /** Time spent so far, or zero before the warm-up starts. */
+    public Duration elapsed() {
+        WarmupReport done = report;
+        if (done != null) return done.elapsed();
+        return state == State.RUNNING ? Duration.ofNanos(System.nanoTime() - startedNanos) : Duration.ZERO;
+    }
+
+    /** The finished warm-up's report; null until then, or if it was skipped or failed. */
+    public WarmupReport report() {
+        return report;
+    }
+
+    // first WINDOW latencies, and the last WINDOW in a ring
+    private static final class Samples {
+        final long[] first = new long[WINDOW];
+        final long[] last = new long[WINDOW];
+        int count;
+
+        void add(long nanos) {
+            if (count < WINDOW) first[count] = nanos;
+            last[count % WINDOW] = nanos;
+            count++;
+        }
+
+        WarmupReport.Latency latency() {
+            long[] head = Arrays.copyOf(first, Math.min(count, WINDOW));
+            long[] tail = Arrays.copyOf(last, Math.min(count, WINDOW));
+            Arrays.sort(head);
+            Arrays.sort(tail);
+            return new WarmupReport.Latency(micros(head, 0.5), micros(head, 0.99), micros(tail, 0.5), micros(tail, 0.99));
+        }
+
+        private static long micros(long[] sorted, double quantile) {
+            return TimeUnit.NANOSECONDS.toMicros(sorted[(int) Math.ceil(quantile * sorted.length) - 1]);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package edu.trincoll.web;
+
+import edu.trincoll.admission.LaneBusyException;
+import edu.trincoll.admission.ThrottledException;
+import edu.trincoll.service.NotFoundException;
+import edu.trincoll.service.RuleViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+/**
+ * Maps the services' exceptions to problem details: unknown books and members
+ * ({@link NotFoundException}) are 404, other bad arguments 400, rule
+ * violations ({@link RuleViolationException}) 409, throttled requests 429,
+ * and work refused for lack of capacity 503. Anything else is a 500.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
+
+    @ExceptionHandler(NotFoundException.class)
+    public ProblemDetail notFound(NotFoundException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail badArgument(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST,
+                e.getMessage() != null ? e.getMessage() : "Bad request");
+    }
+
+    @ExceptionHandler(RuleViolationException.class)
+    public ProblemDetail conflict(RuleViolationException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+    }
+
+    @ExceptionHandler(ThrottledException.class)
+    public ResponseEntity<ProblemDetail> throttled(ThrottledException e) {
+        return retryLater(HttpStatus.TOO_MANY_REQUESTS, e);
+    }
+
+    @ExceptionHandler(LaneBusyException.class)
+    public ResponseEntity<ProblemDetail> busy(LaneBusyException e) {
+        return retryLater(HttpStatus.SERVICE_UNAVAILABLE, e);
+    }
+
+    private static ResponseEntity<ProblemDetail> retryLater(HttpStatus status, ThrottledException e) {
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.retryAfter().toSeconds()))
+                .body(ProblemDetail.forStatusAndDetail(status, e.getMessage()));
+    }
+}
@@ -0,0 +1,7 @@
+package edu.trincoll.web;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+
+public record CheckoutRequest(@NotBlank String isbn, @NotBlank @Email String memberEmail) {
+}
@@ -0,0 +1,7 @@
+package edu.trincoll.web;
+
+/**
+ * @param message the outcome as reported by {@code LibraryService}
+ */
+public record CirculationResponse(String message) {
+}
@@ -0,0 +1,30 @@
+package edu.trincoll.web;
+
+import edu.trincoll.service.sync.DeskSyncService;
+import edu.trincoll.service.sync.SyncReport;
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Upload point for desks that worked offline (the bookmobile). One call
+ * replaces a request per checkout/return; every command gets its own outcome,
+ * so a partly rejected batch still answers 200.
+ */
+@RestController
+@RequestMapping("/api")
+public class DeskSyncController {
+
+    private final DeskSyncService deskSyncService;
+
+    public DeskSyncController(DeskSyncService deskSyncService) {
+        this.deskSyncService = deskSyncService;
+    }
+
+    @PostMapping("/sync")
+    public SyncReport sync(@Valid @RequestBody SyncRequest request) {
+        return deskSyncService.apply(request.commands());
+    }
+}
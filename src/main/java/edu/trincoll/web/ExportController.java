@@ -0,0 +1,39 @@
+package edu.trincoll.web;
+
+import edu.trincoll.service.export.CatalogExportService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Full-table NDJSON exports for the data warehouse. The body is written
+ * asynchronously after the handler returns, so the export's read-only
+ * transaction lives on the writing thread, not the request thread.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private final CatalogExportService exportService;
+
+    public ExportController(CatalogExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping(path = "/books", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody books() {
+        return exportService::exportBooks;
+    }
+
+    @GetMapping(path = "/members", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody members() {
+        return exportService::exportMembers;
+    }
+
+    @GetMapping(path = "/loans", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody loans() {
+        return exportService::exportLoans;
+    }
+}
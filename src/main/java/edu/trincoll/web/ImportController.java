@@ -0,0 +1,67 @@
+package edu.trincoll.web;
+
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.service.batch.CatalogImportService;
+import edu.trincoll.service.batch.ImportReport;
+import edu.trincoll.service.batch.MemberImportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Function;
+
+/**
+ * Bulk loads from a branch's CSV or TSV export, sent as the request body
+ * ({@code text/csv} or {@code text/tab-separated-values}). The body is
+ * spooled to a temporary file so the import services can stream it in chunks;
+ * the response is the {@link ImportReport} with the rejected rows.
+ */
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+    static final String TEXT_CSV = "text/csv";
+    static final String TEXT_TSV = "text/tab-separated-values";
+
+    private final CatalogImportService catalogImportService;
+    private final MemberImportService memberImportService;
+
+    public ImportController(CatalogImportService catalogImportService, MemberImportService memberImportService) {
+        this.catalogImportService = catalogImportService;
+        this.memberImportService = memberImportService;
+    }
+
+    @PostMapping(path = "/books", consumes = {TEXT_CSV, TEXT_TSV})
+    public ImportReport books(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                              InputStream body) throws IOException {
+        return spooled(contentType, body, catalogImportService::importCatalog);
+    }
+
+    @PostMapping(path = "/members", consumes = {TEXT_CSV, TEXT_TSV})
+    public ImportReport members(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                @RequestParam(name = "defaultType", defaultValue = "REGULAR") MembershipType defaultType,
+                                InputStream body) throws IOException {
+        return spooled(contentType, body, file -> memberImportService.importMembers(file, defaultType));
+    }
+
+    // the import services pick the delimiter from the file name
+    private static ImportReport spooled(MediaType contentType, InputStream body,
+                                        Function<Path, ImportReport> importer) throws IOException {
+        String suffix = contentType.isCompatibleWith(MediaType.parseMediaType(TEXT_TSV)) ? ".tsv" : ".csv";
+        Path file = Files.createTempFile("library-import-", suffix);
+        try {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+            return importer.apply(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
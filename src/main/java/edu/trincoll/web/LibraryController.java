@@ -0,0 +1,87 @@
+package edu.trincoll.web;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.CatalogVersion;
+import edu.trincoll.service.LibraryFacade;
+import edu.trincoll.service.LibraryService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * HTTP front door to {@link LibraryFacade}. Requests run on virtual threads
+ * ({@code spring.threads.virtual.enabled}), so a request blocked on the
+ * database holds no platform thread; concurrency is bounded by the connection
+ * pools rather than by Tomcat's thread pool.
+ *
+ * Search results and reports carry an ETag made of this instance's node id,
+ * its catalog version and today's date (reports depend on the date); the node
+ * id keeps a tag from one instance from validating against another's counter. A request whose
+ * {@code If-None-Match} still matches gets a 304 before any query runs.
+ */
+@RestController
+@RequestMapping("/api")
+public class LibraryController {
+    private final LibraryFacade libraryFacade;
+    private final Clock clock;
+
+    @Autowired
+    public LibraryController(LibraryFacade libraryFacade, Clock clock) {
+        this.libraryFacade = libraryFacade;
+        this.clock = clock;
+    }
+
+    @PostMapping("/checkouts")
+    public ResponseEntity<CirculationResponse> checkout(@Valid @RequestBody CheckoutRequest request) {
+        return outcome(libraryFacade.checkoutBook(request.isbn(), request.memberEmail()));
+    }
+
+    @PostMapping("/returns")
+    public ResponseEntity<CirculationResponse> returnBook(@Valid @RequestBody ReturnRequest request) {
+        return outcome(libraryFacade.returnBook(request.isbn()));
+    }
+
+    @GetMapping("/books")
+    public ResponseEntity<List<Book>> search(@RequestParam("q") String term,
+                                             @RequestParam(name = "type", defaultValue = "title") String type,
+                                             WebRequest request) {
+        String etag = catalogEtag();
+        if (request.checkNotModified(etag)) return null;
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+                .body(libraryFacade.search(term, type));
+    }
+
+    @GetMapping(path = "/reports/{type}", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> report(@PathVariable String type, WebRequest request) {
+        String etag = catalogEtag();
+        if (request.checkNotModified(etag)) return null;
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+                .body(libraryFacade.generateReport(type));
+    }
+
+    // read before the response is computed, so a concurrent change can only make the tag older
+    private String catalogEtag() {
+        return "\"" + CatalogVersion.node() + "-" + libraryFacade.catalogVersion() + "-"
+                + LocalDate.now(clock).toEpochDay() + "\"";
+    }
+
+    private static ResponseEntity<CirculationResponse> outcome(String message) {
+        return ResponseEntity.status(LibraryService.succeeded(message) ? HttpStatus.OK : HttpStatus.CONFLICT)
+                .body(new CirculationResponse(message));
+    }
+}
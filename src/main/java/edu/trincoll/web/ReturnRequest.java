@@ -0,0 +1,6 @@
+package edu.trincoll.web;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record ReturnRequest(@NotBlank String isbn) {
+}
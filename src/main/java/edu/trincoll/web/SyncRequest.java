@@ -0,0 +1,10 @@
+package edu.trincoll.web;
+
+import edu.trincoll.service.sync.DeskCommand;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record SyncRequest(@NotEmpty List<@Valid DeskCommand> commands) {
+}
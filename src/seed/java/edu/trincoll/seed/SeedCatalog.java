@@ -0,0 +1,100 @@
+package edu.trincoll.seed;
+
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.MembershipType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Names of the seeded books and members, and the seeding itself, shared by
+ * the JMH benchmarks and the load test. Books are numbered from 1 and
+ * members from 0; member {@code m} is stored with id {@code m + 1}.
+ */
+public final class SeedCatalog {
+    private static final int CHUNK = 10_000;
+    private static final String[] WORDS = {
+            "river", "garden", "winter", "shadow", "glass", "empire", "silent", "north", "paper", "stone",
+            "night", "harbor", "iron", "summer", "house", "letters", "machine", "island", "crown", "forest"};
+
+    /** Which member holds each seeded book. */
+    @FunctionalInterface
+    public interface Loans {
+        int ON_SHELF = -1;
+
+        Loans NONE = book -> ON_SHELF;
+
+        /** @return the borrowing member, or {@link #ON_SHELF} */
+        int borrower(int book);
+    }
+
+    private SeedCatalog() {
+    }
+
+    public static String isbn(int id) {
+        return String.format("978%010d", id);
+    }
+
+    public static String email(int member) {
+        return "member" + member + "@example.org";
+    }
+
+    public static String title(int id) {
+        return WORDS[id % WORDS.length] + " " + WORDS[(id / WORDS.length) % WORDS.length] + " " + id;
+    }
+
+    public static String author(int id) {
+        return "Author " + (id % 1_000);
+    }
+
+    /** Seeds the catalog with every book on the shelf. */
+    public static void seed(JdbcTemplate jdbc, int books, int members, LocalDate today) {
+        seed(jdbc, books, members, today, Loans.NONE);
+    }
+
+    /**
+     * Seeds the catalog with the given loans, due from 30 days ago to 30 days
+     * ahead so overdue reports have work to do.
+     */
+    public static void seed(JdbcTemplate jdbc, int books, int members, LocalDate today, Loans loans) {
+        int[] checkedOut = new int[members];
+        for (int id = 1; id <= books; id++) {
+            int m = loans.borrower(id);
+            if (m != Loans.ON_SHELF) checkedOut[m]++;
+        }
+
+        MembershipType[] types = MembershipType.values();
+        List<Object[]> rows = new ArrayList<>(CHUNK);
+        for (int m = 0; m < members; m++) {
+            rows.add(new Object[]{(long) m + 1, "Member " + m, email(m), types[m % types.length].name(),
+                    Date.valueOf(today.minusDays(m % 1_000)), checkedOut[m]});
+            if (rows.size() == CHUNK || m == members - 1) {
+                jdbc.batchUpdate("""
+                        INSERT INTO members (id, name, email, membership_type, member_since, books_checked_out)
+                        VALUES (?, ?, ?, ?, ?, ?)""", rows);
+                rows.clear();
+            }
+        }
+        for (int id = 1; id <= books; id++) {
+            int m = loans.borrower(id);
+            boolean out = m != Loans.ON_SHELF;
+            rows.add(new Object[]{(long) id, isbn(id), title(id), author(id),
+                    Date.valueOf(today.minusDays(id % 20_000)),
+                    out ? BookStatus.CHECKED_OUT.name() : BookStatus.AVAILABLE.name(),
+                    out ? email(m) : null,
+                    out ? Date.valueOf(today.plusDays(id % 61 - 30)) : null});
+            if (rows.size() == CHUNK || id == books) {
+                jdbc.batchUpdate("""
+                        INSERT INTO books (id, isbn, title, author, publication_date, status, checked_out_by, due_date)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?)""", rows);
+                rows.clear();
+            }
+        }
+        jdbc.execute("ALTER SEQUENCE books_seq RESTART WITH " + (books + 50));
+        jdbc.execute("ALTER TABLE members ALTER COLUMN id RESTART WITH " + (members + 1));
+        jdbc.execute("ANALYZE");
+    }
+}
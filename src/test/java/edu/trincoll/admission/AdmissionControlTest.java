@@ -0,0 +1,131 @@
+package edu.trincoll.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionControlTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    // members: 1 per second, burst 3; clients: 2 per second, burst 2; 1 in flight
+    private final AdmissionControl admission = new AdmissionControl(1, 3, 2, 2, 1, registry, now::get);
+
+    @Test
+    void memberBurstThenSteadyRate() {
+        for (int i = 0; i < 3; i++) {
+            admission.admitMember("a@x.com");
+        }
+        assertThatThrownBy(() -> admission.admitMember("A@x.com"))
+                .isInstanceOf(ThrottledException.class)
+                .extracting(e -> ((ThrottledException) e).retryAfter())
+                .isEqualTo(Duration.ofSeconds(1));
+        admission.admitMember("b@x.com");   // other members are unaffected
+
+        now.addAndGet(1_000_000_000L);
+        admission.admitMember("a@x.com");
+        assertThatThrownBy(() -> admission.admitMember("a@x.com")).isInstanceOf(ThrottledException.class);
+        assertThat(throttled("member")).isEqualTo(2.0);
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws Exception {
+        var admitted = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        admission.admitMember("a@x.com");
+                        admitted.incrementAndGet();
+                    } catch (ThrottledException | InterruptedException ignored) {
+                    }
+                });
+            }
+            start.countDown();
+        }
+        assertThat(admitted).hasValue(3);
+    }
+
+    @Test
+    void inFlightBoundShedsLoad() {
+        assertThat(admission.tryEnter()).isTrue();
+        assertThat(admission.tryEnter()).isFalse();
+        assertThat(admission.inFlight()).isEqualTo(1);
+        admission.exit();
+        assertThat(admission.tryEnter()).isTrue();
+        assertThat(throttled("overload")).isEqualTo(1.0);
+    }
+
+    @Test
+    void filterThrottlesPerClientAndShedsWhenSaturated() throws Exception {
+        var filter = new AdmissionFilter(admission, "10.0.0.9, 127.0.0.1");
+
+        assertThat(call(filter, "kiosk-1").getStatus()).isEqualTo(200);
+        assertThat(call(filter, "kiosk-1").getStatus()).isEqualTo(200);
+        MockHttpServletResponse throttled = call(filter, "kiosk-1");
+        assertThat(throttled.getStatus()).isEqualTo(429);
+        assertThat(throttled.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(throttled.getContentType()).isEqualTo("application/problem+json");
+
+        admission.tryEnter();   // the only in-flight slot is taken
+        assertThat(call(filter, "kiosk-2").getStatus()).isEqualTo(503);
+        admission.exit();
+        assertThat(admission.inFlight()).isZero();
+        assertThat(throttled("client")).isEqualTo(1.0);
+    }
+
+    @Test
+    void clientHeaderCountsOnlyFromTrustedProxies() throws Exception {
+        var filter = new AdmissionFilter(admission, "10.0.0.9");
+
+        // an untrusted caller cannot get a fresh bucket by changing the header
+        assertThat(call(filter, "a").getStatus()).isEqualTo(200);
+        assertThat(call(filter, "b").getStatus()).isEqualTo(200);
+        assertThat(call(filter, "c").getStatus()).isEqualTo(429);
+
+        var request = new MockHttpServletRequest("GET", "/api/books");
+        request.setRemoteAddr("10.0.0.9");
+        request.addHeader(AdmissionFilter.CLIENT_HEADER, "kiosk-1");
+        assertThat(filter.clientKey(request)).isEqualTo("id:kiosk-1");
+        request.setRemoteAddr("10.0.0.10");
+        assertThat(filter.clientKey(request)).isEqualTo("addr:10.0.0.10");
+    }
+
+    @Test
+    void filterLeavesNonApiPathsAlone() throws Exception {
+        var filter = new AdmissionFilter(admission);
+        admission.tryEnter();
+
+        var request = new MockHttpServletRequest("GET", "/actuator/health");
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    private static MockHttpServletResponse call(AdmissionFilter filter, String client) throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/books");
+        request.addHeader(AdmissionFilter.CLIENT_HEADER, client);
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private double throttled(String reason) {
+        return registry.get("library.admission.throttled").tag("reason", reason).counter().count();
+    }
+}
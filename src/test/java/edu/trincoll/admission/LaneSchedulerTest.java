@@ -0,0 +1,130 @@
+package edu.trincoll.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LaneSchedulerTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private LaneScheduler scheduler(MockEnvironment environment) {
+        return new LaneScheduler(environment, registry, now::get);
+    }
+
+    @Test
+    void fullInteractiveLaneRefusesAfterMaxWait() throws Exception {
+        var lanes = scheduler(new MockEnvironment()
+                .withProperty("library.lanes.circulation.permits", "1")
+                .withProperty("library.lanes.max-wait-ms", "20"));
+        var holding = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var holder = CompletableFuture.runAsync(() -> lanes.run(WorkLane.CIRCULATION, () -> {
+            holding.countDown();
+            await(release);
+        }));
+        holding.await();
+
+        assertThatThrownBy(() -> lanes.call(WorkLane.CIRCULATION, () -> "late"))
+                .isInstanceOf(LaneBusyException.class);
+        assertThat(lanes.call(WorkLane.SEARCH, () -> "other lanes are unaffected")).isNotNull();
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertThat(lanes.call(WorkLane.CIRCULATION, () -> "ok")).isEqualTo("ok");
+        assertThat(registry.get("library.lane.rejected").tag("lane", "circulation").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void batchLaneBoundsConcurrency() {
+        var lanes = scheduler(new MockEnvironment().withProperty("library.lanes.batch.permits", "2"));
+        var running = new AtomicInteger();
+        var peak = new AtomicInteger();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                executor.execute(() -> lanes.run(WorkLane.BATCH, () -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(5);
+                    running.decrementAndGet();
+                }));
+            }
+        }
+        assertThat(peak.get()).isEqualTo(2);
+    }
+
+    @Test
+    void batchWaitsWhileCirculationMissesItsTarget() throws Exception {
+        var lanes = scheduler(new MockEnvironment().withProperty("library.lanes.circulation.target-ms", "200"));
+        lanes.run(WorkLane.CIRCULATION, () -> now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500)));
+        assertThat(lanes.interactiveBehind()).isTrue();
+
+        var batch = CompletableFuture.supplyAsync(() -> lanes.call(WorkLane.BATCH, () -> "done"));
+        Thread.sleep(200);
+        assertThat(batch).isNotDone();
+
+        // no circulation traffic for a while: the slow sample no longer counts
+        now.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        assertThat(batch.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(lanes.interactiveBehind()).isFalse();
+        assertThat(registry.get("library.lane.batch.deferred").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void batchRunSharesOneDelayAllowanceAcrossItsSteps() throws Exception {
+        var lanes = scheduler(new MockEnvironment()
+                .withProperty("library.lanes.circulation.target-ms", "200")
+                .withProperty("library.lanes.batch-max-delay-ms", "1000"));
+        lanes.run(WorkLane.CIRCULATION, () -> now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500)));
+        var batch = lanes.startBatch();
+
+        var first = CompletableFuture.supplyAsync(() -> batch.call(() -> "first"));
+        Thread.sleep(200);
+        assertThat(first).isNotDone();
+
+        // the allowance is spent while circulation is still behind
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(lanes.interactiveBehind()).isTrue();
+        assertThat(batch.call(() -> "second")).isEqualTo("second");
+        assertThat(registry.get("library.lane.batch.deferred").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void fastRequestsPullTheAverageBackUnderTarget() {
+        var lanes = scheduler(new MockEnvironment());
+        lanes.run(WorkLane.SEARCH, () -> now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000)));
+        assertThat(lanes.interactiveBehind()).isTrue();
+
+        for (int i = 0; i < 20; i++) {
+            lanes.run(WorkLane.SEARCH, () -> now.addAndGet(TimeUnit.MILLISECONDS.toNanos(10)));
+        }
+        assertThat(lanes.interactiveBehind()).isFalse();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package edu.trincoll.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DataSourceRoutingConfigTest {
+
+    @Mock DataSource primary;
+    @Mock DataSource read;
+    @Mock Connection primaryConnection;
+    @Mock Connection readConnection;
+
+    private DataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        routing = new DataSourceRoutingConfig().dataSource(primary, read, null);
+    }
+
+    @Test
+    void readOnlyConnectionsComeFromReadPool() throws Exception {
+        when(read.getConnection()).thenReturn(readConnection);
+
+        try (Connection con = routing.getConnection()) {
+            con.setReadOnly(true);
+            con.createStatement();
+        }
+
+        verify(readConnection).createStatement();
+        verify(primaryConnection, never()).createStatement();
+    }
+
+    @Test
+    void writableConnectionsComeFromPrimaryPool() throws Exception {
+        try (Connection con = routing.getConnection()) {
+            con.createStatement();
+        }
+
+        verify(primaryConnection).createStatement();
+        verifyNoInteractions(read);
+    }
+}
@@ -0,0 +1,51 @@
+package edu.trincoll.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryMetricsTest {
+
+    @Test
+    void rowCountsFollowTheReturnType() {
+        assertThat(RepositoryRowCounter.rows(List.of(1, 2, 3), List.class)).isEqualTo(3);
+        assertThat(RepositoryRowCounter.rows(Optional.empty(), Optional.class)).isZero();
+        assertThat(RepositoryRowCounter.rows(new PageImpl<>(List.of("a", "b")), Page.class))
+                .isEqualTo(2);
+        assertThat(RepositoryRowCounter.rows("entity", Object.class)).isEqualTo(1);
+        assertThat(RepositoryRowCounter.rows(7L, long.class)).isNegative();
+        assertThat(RepositoryRowCounter.rows(Stream.of(1), Stream.class)).isNegative();
+    }
+
+    @Test
+    void filterFlagsRequestsAboveStatementThreshold() throws Exception {
+        var registry = new SimpleMeterRegistry();
+        var filter = new StatementCountFilter(registry, 2);
+        var request = new MockHttpServletRequest("GET", "/api/books/123");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/books/{isbn}");
+        var inspector = new StatementCountingInspector();
+        var chain = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                for (int i = 0; i < 3; i++) inspector.inspect("select 1");
+            }
+        };
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(registry.get("library.request.statements").tag("uri", "/api/books/{isbn}").summary().totalAmount())
+                .isEqualTo(3);
+        assertThat(registry.get("library.request.statements.excessive").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,71 @@
+package edu.trincoll.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryDetectorTest {
+
+    private final DriverManagerDataSource h2 = new DriverManagerDataSource("jdbc:h2:mem:slowquery;DB_CLOSE_DELAY=-1");
+    private SlowQueryDetector detector;
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(h2).execute("DROP ALL OBJECTS");
+        detector.shutdown();
+    }
+
+    private List<SlowQuery> awaitEntries(int count) throws InterruptedException {
+        for (int i = 0; i < 100 && detector.recent().size() < count; i++) {
+            Thread.sleep(50);
+        }
+        return detector.recent();
+    }
+
+    @Test
+    void capturesSqlParameterTypesAndPlan() throws Exception {
+        detector = new SlowQueryDetector(0, 10, true);
+        var jdbc = new JdbcTemplate(detector.wrap(h2, "primary"));
+        jdbc.execute("CREATE TABLE books (id BIGINT PRIMARY KEY, author VARCHAR(255))");
+        jdbc.update("INSERT INTO books VALUES (?, ?)", 1L, "Herbert");
+        detector.clear();
+
+        jdbc.queryForList("SELECT id FROM books WHERE author = ?", "Herbert");
+
+        List<SlowQuery> entries = awaitEntries(1);
+        assertThat(entries).singleElement().satisfies(q -> {
+            assertThat(q.dataSource()).isEqualTo("primary");
+            assertThat(q.sql()).isEqualTo("SELECT id FROM books WHERE author = ?");
+            assertThat(q.parameterTypes()).containsExactly("String");
+            assertThat(q.plan()).containsIgnoringCase("tableScan").doesNotContain("Herbert");
+        });
+    }
+
+    @Test
+    void updatesAreKeptWithoutPlanAndBufferIsBounded() throws Exception {
+        detector = new SlowQueryDetector(0, 2, true);
+        var jdbc = new JdbcTemplate(detector.wrap(h2, "primary"));
+        jdbc.execute("CREATE TABLE t (id INT)");
+        jdbc.update("INSERT INTO t VALUES (1)");
+        jdbc.update("UPDATE t SET id = 2");
+
+        List<SlowQuery> entries = detector.recent();
+        assertThat(entries).hasSize(2);
+        assertThat(entries.get(0).sql()).startsWith("UPDATE");
+        assertThat(entries.get(0).plan()).isEqualTo("(not explained: not a SELECT)");
+        assertThat(detector.recorded()).isEqualTo(3);
+    }
+
+    @Test
+    void fastQueriesAreIgnored() {
+        detector = new SlowQueryDetector(60_000, 10, true);
+        new JdbcTemplate(detector.wrap(h2, "primary")).queryForObject("SELECT 1", Integer.class);
+
+        assertThat(detector.recent()).isEmpty();
+    }
+}
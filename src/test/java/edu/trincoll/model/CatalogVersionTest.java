@@ -0,0 +1,53 @@
+package edu.trincoll.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogVersionTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void changesImmediatelyOutsideTransactions() {
+        long before = CatalogVersion.current();
+
+        CatalogVersion.changed();
+
+        assertThat(CatalogVersion.current()).isGreaterThan(before);
+    }
+
+    @Test
+    void changesOnceAfterCommitInsideTransactions() {
+        TransactionSynchronizationManager.initSynchronization();
+        long before = CatalogVersion.current();
+
+        CatalogVersion.changed();
+        CatalogVersion.changed();
+        assertThat(CatalogVersion.current()).isEqualTo(before);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertThat(CatalogVersion.current()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void rollbackLeavesVersionAlone() {
+        TransactionSynchronizationManager.initSynchronization();
+        long before = CatalogVersion.current();
+
+        CatalogVersion.changed();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(CatalogVersion.current()).isEqualTo(before);
+    }
+}
@@ -0,0 +1,136 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.metrics.SlowQuery;
+import edu.trincoll.metrics.SlowQueryDetector;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.MembershipType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the indexes declared on Book and Member: seeds a realistic amount of
+ * data, runs each derived query through its repository and checks the plan H2
+ * reports for the SQL Hibernate actually sent. Plans come from the slow query
+ * detector with a zero threshold.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plans",
+        "library.datasource.read.url=jdbc:h2:mem:plans",
+        "library.slow-query.threshold-ms=0",
+        "library.slow-query.capacity=1000",
+        "logging.level.edu.trincoll.metrics=ERROR"
+})
+class QueryPlanIT {
+    private static final int BOOKS = 20_000;
+    private static final int MEMBERS = 5_000;
+
+    @Autowired BookRepository bookRepository;
+    @Autowired MemberRepository memberRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired SlowQueryDetector slowQueries;
+
+    private static boolean seeded;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) return;
+        LocalDate today = LocalDate.now();
+        List<Object[]> members = new ArrayList<>(MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            members.add(new Object[]{"Member " + i, "m" + i + "@x.org",
+                    MembershipType.values()[i % 3].name(), Date.valueOf(today), i % 11});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO members (name, email, membership_type, member_since, books_checked_out)
+                VALUES (?, ?, ?, ?, ?)""", members);
+
+        List<Object[]> books = new ArrayList<>(BOOKS);
+        for (int i = 1; i <= BOOKS; i++) {
+            boolean out = i % 5 == 0;
+            books.add(new Object[]{(long) i, "isbn-" + i, "Title " + i, "Author " + (i % 2_000),
+                    Date.valueOf(today.minusYears(i % 50)),
+                    out ? BookStatus.CHECKED_OUT.name() : BookStatus.AVAILABLE.name(),
+                    out ? "m" + (i % MEMBERS) + "@x.org" : null,
+                    out ? Date.valueOf(today.plusDays(i % 60 - 30)) : null});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO books (id, isbn, title, author, publication_date, status, checked_out_by, due_date)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)""", books);
+        jdbcTemplate.execute("ANALYZE");
+        seeded = true;
+    }
+
+    private String planOf(String table, Runnable query) throws InterruptedException {
+        slowQueries.clear();
+        query.run();
+        for (int i = 0; i < 200; i++) {
+            for (SlowQuery q : slowQueries.recent()) {
+                if (q.sql().toLowerCase().contains("from " + table) && !q.plan().startsWith("(")) {
+                    return q.plan();
+                }
+            }
+            Thread.sleep(25);
+        }
+        throw new AssertionError("No plan captured for query on " + table);
+    }
+
+    private void assertUsesIndex(String plan, String index) {
+        assertThat(plan).containsIgnoringCase(index).doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void findByStatusUsesStatusIndex() throws Exception {
+        assertUsesIndex(planOf("books", () -> bookRepository.findByStatus(BookStatus.CHECKED_OUT)),
+                "idx_books_status_due_date");
+    }
+
+    @Test
+    void countByStatusUsesStatusIndex() throws Exception {
+        assertUsesIndex(planOf("books", () -> bookRepository.countByStatus(BookStatus.AVAILABLE)),
+                "idx_books_status_due_date");
+    }
+
+    @Test
+    void findByAuthorUsesAuthorIndex() throws Exception {
+        assertUsesIndex(planOf("books", () -> bookRepository.findByAuthor("Author 42")), "idx_books_author");
+    }
+
+    @Test
+    void overdueBooksUseStatusAndDueDateIndex() throws Exception {
+        assertUsesIndex(planOf("books", () -> bookRepository.findByStatusAndDueDateBefore(BookStatus.CHECKED_OUT,
+                        LocalDate.now().minusDays(25))),
+                "idx_books_status_due_date");
+    }
+
+    @Test
+    void findByCheckedOutByUsesBorrowerIndex() throws Exception {
+        assertUsesIndex(planOf("books", () -> bookRepository.findByCheckedOutBy("m5@x.org")),
+                "idx_books_checked_out_by");
+    }
+
+    @Test
+    void findByMembershipTypeUsesTypeIndex() throws Exception {
+        assertUsesIndex(planOf("members", () -> memberRepository.findByMembershipType(MembershipType.PREMIUM)),
+                "idx_members_membership_type");
+    }
+
+    @Test
+    void findByBooksCheckedOutGreaterThanUsesCountIndex() throws Exception {
+        assertUsesIndex(planOf("members", () -> memberRepository.findByBooksCheckedOutGreaterThan(9)),
+                "idx_members_books_checked_out");
+    }
+}
@@ -0,0 +1,213 @@
+package edu.trincoll.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.Member;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.service.report.ReportRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Bytes allocated per call by the circulation hot paths, checked against
+ * {@code allocation-budgets.properties}. Each operation is warmed up first so
+ * the JIT has compiled it, then measured with the thread's allocation counter
+ * over many calls. Circulation runs through the real {@link MemberService}
+ * and {@link MemberCache}; repositories are plain proxies rather than Mockito
+ * mocks, whose bookkeeping would dwarf what the service itself allocates.
+ */
+class AllocationBudgetTest {
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 20_000;
+    private static final LocalDate TODAY = LocalDate.of(2030, 1, 10);
+    private static final LocalDate FIVE_DAYS_AGO = TODAY.minusDays(5);
+
+    private static final Logger serviceLog = (Logger) LoggerFactory.getLogger(LibraryService.class);
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static Properties budgets;
+    private static Level serviceLogLevel;
+
+    private Book book;
+    private Member member;
+    private LibraryService libraryService;
+
+    @BeforeAll
+    static void loadBudgets() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "JVM does not expose per-thread allocation counters");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "thread allocation measurement not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        budgets = new Properties();
+        try (InputStream in = AllocationBudgetTest.class.getResourceAsStream("/allocation-budgets.properties")) {
+            budgets.load(in);
+        }
+
+        // A Spring test earlier in the JVM may have left edu.trincoll at DEBUG,
+        // whose formatted messages would be counted against the budgets.
+        serviceLogLevel = serviceLog.getLevel();
+        serviceLog.setLevel(Level.INFO);
+    }
+
+    @AfterAll
+    static void restoreLogLevel() {
+        serviceLog.setLevel(serviceLogLevel);
+    }
+
+    @BeforeEach
+    void setUp() {
+        book = new Book();
+        book.setId(1L);
+        book.setIsbn("978-0-123456-78-9");
+        book.setTitle("Clean Code");
+        book.setAuthor("Robert Martin");
+        book.setPublicationDate(LocalDate.of(2008, 8, 1));
+
+        member = new Member();
+        member.setId(1L);
+        member.setName("John Doe");
+        member.setEmail("john@example.com");
+        member.setMembershipType(MembershipType.REGULAR);
+
+        Clock clock = Clock.fixed(Instant.parse("2030-01-10T12:00:00Z"), ZoneOffset.UTC);
+        MemberService memberService = new MemberService(memberRepository(),
+                new MemberCache(10_000, Duration.ofMinutes(10)), secondLevelCache());
+        BookRepository bookRepository = bookRepository();
+        libraryService = new LibraryService(bookRepository, new SearchFacade(new BookSearchService(bookRepository)),
+                new ReportRegistry(List.of()), new CheckoutPolicyFactory(), new LateFeeCalculatorFactory(),
+                memberService, clock);
+    }
+
+    @Test
+    void checkout() {
+        assertWithinBudget("checkout", () -> {
+            book.setStatus(BookStatus.AVAILABLE);
+            member.setBooksCheckedOut(0);
+            libraryService.checkoutBook(book.getIsbn(), member.getEmail());
+        });
+        assertThat(book.getStatus()).isEqualTo(BookStatus.CHECKED_OUT);
+    }
+
+    @Test
+    void returnWithLateFee() {
+        assertWithinBudget("return", () -> {
+            book.setStatus(BookStatus.CHECKED_OUT);
+            book.setCheckedOutBy(member.getEmail());
+            book.setDueDate(FIVE_DAYS_AGO);
+            member.setBooksCheckedOut(1);
+            libraryService.returnBook(book.getIsbn());
+        });
+        assertThat(libraryService.returnBook(checkedOut())).isEqualTo("Book returned. Late fee: $2.50");
+    }
+
+    @Test
+    void lateFeeCalculation() {
+        LateFeeCalculatorFactory factory = new LateFeeCalculatorFactory();
+        double[] sink = new double[1];
+        assertWithinBudget("late-fee", () ->
+                sink[0] += factory.getCalculatorFor(MembershipType.STUDENT).calculateLateFee(7));
+        assertThat(sink[0]).isPositive();
+    }
+
+    @Test
+    void policyLookup() {
+        CheckoutPolicyFactory factory = new CheckoutPolicyFactory();
+        int[] sink = new int[1];
+        assertWithinBudget("policy-lookup", () ->
+                sink[0] += factory.getPolicyFor(MembershipType.PREMIUM).getLoanPeriodDays());
+        assertThat(sink[0]).isPositive();
+    }
+
+    private String checkedOut() {
+        book.setStatus(BookStatus.CHECKED_OUT);
+        book.setCheckedOutBy(member.getEmail());
+        book.setDueDate(FIVE_DAYS_AGO);
+        member.setBooksCheckedOut(1);
+        return book.getIsbn();
+    }
+
+    private static void assertWithinBudget(String operation, Runnable call) {
+        long budget = Long.parseLong(budgets.getProperty(operation).trim());
+        for (int i = 0; i < WARMUP; i++) call.run();
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) call.run();
+        long perCall = (threads.getCurrentThreadAllocatedBytes() - before) / ITERATIONS;
+
+        assertThat(perCall)
+                .as("%s allocates %d bytes per call; budget is %d", operation, perCall, budget)
+                .isLessThanOrEqualTo(budget);
+    }
+
+    private BookRepository bookRepository() {
+        return stub(BookRepository.class, (name, args) -> switch (name) {
+            case "findByIsbnForUpdate" -> Optional.of(book);
+            case "save" -> args[0];
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    private MemberRepository memberRepository() {
+        return stub(MemberRepository.class, (name, args) -> switch (name) {
+            case "findByEmail" -> Optional.of(member);
+            case "addLoan" -> member.getBooksCheckedOut() < (int) args[1] && loans(1);
+            case "removeLoan" -> member.getBooksCheckedOut() > 0 && loans(-1);
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    private boolean loans(int change) {
+        member.setBooksCheckedOut(member.getBooksCheckedOut() + change);
+        return true;
+    }
+
+    /** A second-level cache over a session factory whose cache ignores evictions. */
+    private static SecondLevelCache secondLevelCache() {
+        Cache cache = stub(Cache.class, (name, args) -> null);
+        SessionFactory sessionFactory = stub(SessionFactory.class, (name, args) -> switch (name) {
+            case "getCache" -> cache;
+            default -> throw new UnsupportedOperationException(name);
+        });
+        return new SecondLevelCache(stub(EntityManagerFactory.class, (name, args) -> switch (name) {
+            case "unwrap" -> sessionFactory;
+            default -> throw new UnsupportedOperationException(name);
+        }));
+    }
+
+    private interface Answer {
+        Object answer(String method, Object[] args);
+    }
+
+    private static <T> T stub(Class<T> type, Answer answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> answer.answer(method.getName(), args)));
+    }
+}
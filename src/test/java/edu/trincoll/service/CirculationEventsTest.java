@@ -0,0 +1,108 @@
+package edu.trincoll.service;
+
+import edu.trincoll.jfr.CheckoutEvent;
+import edu.trincoll.jfr.ReportEvent;
+import edu.trincoll.jfr.SearchEvent;
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.Member;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.service.report.ReportGenerator;
+import edu.trincoll.service.report.ReportRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CirculationEventsTest {
+
+    @Mock BookRepository bookRepository;
+    @Mock MemberService memberService;
+
+    @TempDir
+    Path dir;
+
+    private List<RecordedEvent> record(Runnable work) throws Exception {
+        try (Recording recording = new Recording()) {
+            recording.enable(CheckoutEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(SearchEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(ReportEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            work.run();
+            recording.stop();
+            Path file = dir.resolve("events.jfr");
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().startsWith("edu.trincoll."))
+                    .toList();
+        }
+    }
+
+    @Test
+    void checkoutEventCarriesIsbnMembershipTypeAndResult() throws Exception {
+        Book book = new Book("111", "Dune", "Frank Herbert", LocalDate.of(1965, 8, 1), BookStatus.AVAILABLE);
+        Member member = new Member("Ann", "ann@x.org");
+        member.setMembershipType(MembershipType.STUDENT);
+        when(bookRepository.findByIsbnForUpdate("111")).thenReturn(Optional.of(book));
+        when(memberService.findByEmail("ann@x.org")).thenReturn(Optional.of(member));
+        when(memberService.addLoan(member, 5)).thenReturn(true);
+        var service = new LibraryService(bookRepository, new SearchFacade(new BookSearchService(bookRepository)),
+                new ReportRegistry(List.of()), new CheckoutPolicyFactory(), new LateFeeCalculatorFactory(),
+                memberService, Clock.systemUTC());
+
+        var events = record(() -> service.checkoutBook("111", "ann@x.org"));
+
+        assertThat(events).hasSize(1);
+        RecordedEvent event = events.get(0);
+        assertThat(event.getEventType().getName()).isEqualTo("edu.trincoll.Checkout");
+        assertThat(event.getString("isbn")).isEqualTo("111");
+        assertThat(event.getString("membershipType")).isEqualTo("STUDENT");
+        assertThat(event.getString("result")).startsWith("Book checked out successfully");
+    }
+
+    @Test
+    void failedSearchIsRecordedWithTheError() throws Exception {
+        var facade = new SearchFacade(new BookSearchService(bookRepository));
+
+        var events = record(() -> assertThatThrownBy(() -> facade.search("x", "genre"))
+                .isInstanceOf(IllegalArgumentException.class));
+
+        assertThat(events).singleElement().satisfies(e -> {
+            assertThat(e.getString("searchType")).isEqualTo("genre");
+            assertThat(e.getString("result")).isEqualTo("IllegalArgumentException: Invalid search type");
+        });
+    }
+
+    @Test
+    void reportsFromTheRegistryAreRecorded() throws Exception {
+        ReportGenerator foo = new ReportGenerator() {
+            @Override public String getType() { return "foo"; }
+            @Override public String generateReport() { return "four"; }
+        };
+        var registry = new ReportRegistry(List.of(foo));
+
+        var events = record(() -> registry.get("foo").generateReport());
+
+        assertThat(events).singleElement().satisfies(e -> {
+            assertThat(e.getString("reportType")).isEqualTo("foo");
+            assertThat(e.getLong("size")).isEqualTo(4);
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package edu.trincoll.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LateFeeCalculatorTest {
+
+    private final long[] daysLate = {-3, 0, 1, 5, 14, 365};
+
+    private final List<LateFeeCalculator> calculators = List.of(
+            new RegularLateFeeCalculator(), new PremiumLateFeeCalculator(), new StudentLateFeeCalculator());
+
+    @Test
+    void bulkFeesMatchScalarPath() {
+        for (LateFeeCalculator calculator : calculators) {
+            double[] fees = new double[daysLate.length];
+            calculator.calculateLateFees(daysLate, fees, daysLate.length);
+            for (int i = 0; i < daysLate.length; i++) {
+                assertThat(fees[i]).isEqualTo(calculator.calculateLateFee(daysLate[i]));
+            }
+        }
+    }
+
+    @Test
+    void bulkCentsMatchScalarPath() {
+        for (LateFeeCalculator calculator : calculators) {
+            long[] cents = new long[daysLate.length];
+            calculator.calculateLateFeesInCents(daysLate, cents, daysLate.length);
+            for (int i = 0; i < daysLate.length; i++) {
+                assertThat(cents[i]).isEqualTo(Math.round(calculator.calculateLateFee(daysLate[i]) * 100));
+            }
+        }
+    }
+
+    @Test
+    void bulkOnlyWritesRequestedLength() {
+        long[] cents = {-1, -1, -1, -1, -1, -1};
+        new RegularLateFeeCalculator().calculateLateFeesInCents(daysLate, cents, 3);
+        assertThat(cents).containsExactly(0, 0, 50, -1, -1, -1);
+    }
+
+    @Test
+    void defaultBulkMethodsDelegateToScalar() {
+        LateFeeCalculator flat = days -> days > 0 ? 1.25 : 0.0;
+        long[] cents = new long[daysLate.length];
+        flat.calculateLateFeesInCents(daysLate, cents, daysLate.length);
+        assertThat(cents).containsExactly(0, 0, 125, 125, 125, 125);
+    }
+}
@@ -0,0 +1,67 @@
+package edu.trincoll.service;
+
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.OverdueLoanBucket;
+import edu.trincoll.service.report.LateFeeLiabilityReportGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LateFeeLiabilityReportGeneratorTest {
+
+    @Mock
+    BookRepository bookRepository;
+
+    private final LateFeeCalculatorFactory factory = new LateFeeCalculatorFactory(
+            new RegularLateFeeCalculator(), new PremiumLateFeeCalculator(), new StudentLateFeeCalculator());
+    private final LocalDate today = LocalDate.of(2030, 1, 10);
+    private final Clock clock = Clock.fixed(today.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+
+    @Test
+    void sumsFeesPerMembershipType() {
+        when(bookRepository.countOverdueLoans(eq(BookStatus.CHECKED_OUT), any(LocalDate.class)))
+                .thenReturn(List.of(
+                        new OverdueLoanBucket(MembershipType.REGULAR, today.minusDays(4), 3),   // 3 * $2.00
+                        new OverdueLoanBucket(MembershipType.REGULAR, today.minusDays(1), 2),   // 2 * $0.50
+                        new OverdueLoanBucket(MembershipType.STUDENT, today.minusDays(10), 1),  // 1 * $2.50
+                        new OverdueLoanBucket(MembershipType.PREMIUM, today.minusDays(30), 5))); // free
+
+        var out = new LateFeeLiabilityReportGenerator(bookRepository, factory, clock).generateReport();
+
+        assertThat(out).startsWith("LATE FEE LIABILITY REPORT")
+                .contains("REGULAR: 5 overdue loans - $7.00")
+                .contains("PREMIUM: 5 overdue loans - $0.00")
+                .contains("STUDENT: 1 overdue loans - $2.50")
+                .contains("TOTAL: 11 overdue loans - $9.50");
+    }
+
+    @Test
+    void growsBucketsBeyondInitialCapacity() {
+        var buckets = new ArrayList<OverdueLoanBucket>();
+        for (int d = 1; d <= 20; d++) {
+            buckets.add(new OverdueLoanBucket(MembershipType.STUDENT, today.minusDays(d), 1));
+        }
+        when(bookRepository.countOverdueLoans(eq(BookStatus.CHECKED_OUT), any(LocalDate.class)))
+                .thenReturn(buckets);
+
+        var out = new LateFeeLiabilityReportGenerator(bookRepository, factory, clock).generateReport();
+
+        // 0.25 * (1 + 2 + ... + 20) = 52.50
+        assertThat(out).contains("STUDENT: 20 overdue loans - $52.50");
+    }
+}
@@ -2,12 +2,23 @@ package edu.trincoll.service;
 
 import edu.trincoll.model.Book;
 import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.Member;
+import edu.trincoll.model.MembershipType;
 import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
@@ -16,6 +27,9 @@ class LibraryFacadeIT {
 
     @Autowired LibraryFacade facade;
     @Autowired BookRepository bookRepository;
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberService memberService;
+    @Autowired LibraryService libraryService;
 
     @Test
     void availableReport_worksAgainstH2() {
@@ -32,5 +46,69 @@ class LibraryFacadeIT {
         String out = facade.generateReport("available");
         assertTrue(out.startsWith("Available books: "));
     }
-}
 
+    @Test
+    void concurrentCheckoutsForOneMemberStopAtTheLimit() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Member member = new Member("Race", "race-" + suffix + "@example.com");
+        member.setMembershipType(MembershipType.REGULAR);   // three books at a time
+        memberRepository.save(member);
+        List<String> isbns = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Book b = new Book();
+            b.setIsbn("RACE-" + suffix + "-" + i);
+            b.setTitle("Race " + i);
+            b.setAuthor("Y");
+            b.setPublicationDate(LocalDate.now());
+            b.setStatus(BookStatus.AVAILABLE);
+            bookRepository.save(b);
+            isbns.add(b.getIsbn());
+        }
+        // leaves a cached copy that still shows no books out
+        memberService.findByEmail(member.getEmail());
+
+        List<Future<String>> results = new ArrayList<>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String isbn : isbns) {
+                results.add(executor.submit(() -> libraryService.checkoutBook(isbn, member.getEmail())));
+            }
+        }
+
+        assertThat(results).extracting(Future::resultNow)
+                .filteredOn(LibraryService::succeeded)
+                .hasSize(3);
+        assertThat(memberRepository.findByEmail(member.getEmail()).orElseThrow().getBooksCheckedOut()).isEqualTo(3);
+    }
+
+    @Test
+    void twoMembersCheckingOutOneBookGetItOnce() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Member m = new Member("Rival " + i, "rival-" + i + "-" + suffix + "@example.com");
+            m.setMembershipType(MembershipType.REGULAR);
+            members.add(memberRepository.save(m));
+        }
+        Book b = new Book();
+        b.setIsbn("ONE-" + suffix);
+        b.setTitle("Only Copy");
+        b.setAuthor("Z");
+        b.setPublicationDate(LocalDate.now());
+        b.setStatus(BookStatus.AVAILABLE);
+        bookRepository.save(b);
+
+        List<Future<String>> results = new ArrayList<>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Member m : members) {
+                results.add(executor.submit(() -> libraryService.checkoutBook(b.getIsbn(), m.getEmail())));
+            }
+        }
+
+        assertThat(results).extracting(Future::resultNow)
+                .filteredOn(LibraryService::succeeded)
+                .hasSize(1);
+        assertThat(results).extracting(Future::resultNow).contains("Book is not available");
+        assertThat(members).extracting(m -> memberRepository.findByEmail(m.getEmail()).orElseThrow().getBooksCheckedOut())
+                .containsExactlyInAnyOrder(0, 1);
+    }
+}
@@ -6,16 +6,23 @@ import edu.trincoll.model.Member;
 import edu.trincoll.model.MembershipType;
 import edu.trincoll.repository.BookRepository;
 import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.service.report.AvailabilityReportGenerator;
+import edu.trincoll.service.report.MembersReportGenerator;
+import edu.trincoll.service.report.OverdueReportGenerator;
+import edu.trincoll.service.report.ReportRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -23,7 +30,9 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,8 +45,11 @@ class LibraryServiceTest {
     @Mock
     private MemberRepository memberRepository;
 
-    // Will use the 2-arg constructor (bookRepository, memberRepository)
-    @InjectMocks
+    @Mock
+    private MemberService memberService;
+
+    private final LocalDate today = LocalDate.of(2030, 1, 10);
+    private final Clock clock = Clock.fixed(Instant.parse("2030-01-10T12:00:00Z"), ZoneOffset.UTC);
     private LibraryService libraryService;
 
     private Book availableBook;
@@ -47,6 +59,12 @@ class LibraryServiceTest {
 
     @BeforeEach
     void setUp() {
+        libraryService = new LibraryService(bookRepository,
+                new SearchFacade(new BookSearchService(bookRepository)),
+                new ReportRegistry(List.of(new OverdueReportGenerator(bookRepository, clock),
+                        new AvailabilityReportGenerator(bookRepository), new MembersReportGenerator(memberRepository))),
+                new CheckoutPolicyFactory(), new LateFeeCalculatorFactory(), memberService, clock);
+
         availableBook = new Book();
         availableBook.setId(1L);
         availableBook.setIsbn("978-0-123456-78-9");
@@ -107,14 +125,14 @@ class LibraryServiceTest {
     @DisplayName("Should not return a book that is not checked out")
     void shouldNotReturnWhenBookNotCheckedOut() {
         availableBook.setStatus(BookStatus.AVAILABLE);
-        when(bookRepository.findByIsbn(availableBook.getIsbn()))
+        when(bookRepository.findByIsbnForUpdate(availableBook.getIsbn()))
                 .thenReturn(Optional.of(availableBook));
 
         String msg = libraryService.returnBook(availableBook.getIsbn());
 
         assertThat(msg).isEqualTo("Book is not checked out");
         verify(bookRepository, never()).save(any());
-        verify(memberRepository, never()).save(any());
+        verify(memberService, never()).removeLoan(any());
     }
 
     // 4) checkoutBook: unknown membership type -> exception branch
@@ -125,9 +143,9 @@ class LibraryServiceTest {
         weird.setEmail("weird@example.com");
         weird.setMembershipType(null); // triggers else branch
 
-        when(bookRepository.findByIsbn(availableBook.getIsbn()))
+        when(bookRepository.findByIsbnForUpdate(availableBook.getIsbn()))
                 .thenReturn(Optional.of(availableBook));
-        when(memberRepository.findByEmail("weird@example.com"))
+        when(memberService.findByEmail("weird@example.com"))
                 .thenReturn(Optional.of(weird));
 
         assertThatThrownBy(() ->
@@ -135,7 +153,7 @@ class LibraryServiceTest {
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessage("Unknown membership type");
     }
-    // ---- Coverage for legacy generateReport() paths (no ReportRegistry injected) ----
+    // ---- generateReport() through the registered report generators ----
     @Test
     void generateReport_overdue_available_members() {
         // overdue
@@ -143,12 +161,12 @@ class LibraryServiceTest {
         overdue.setTitle("Over");
         overdue.setAuthor("Due");
         overdue.setIsbn("O-1");
-        overdue.setPublicationDate(LocalDate.now().minusYears(1));
+        overdue.setPublicationDate(today.minusYears(1));
         overdue.setStatus(BookStatus.CHECKED_OUT);
         overdue.setCheckedOutBy("x@y.com");
-        overdue.setDueDate(LocalDate.now().minusDays(3));
+        overdue.setDueDate(today.minusDays(3));
 
-        when(bookRepository.findByDueDateBefore(any(LocalDate.class)))
+        when(bookRepository.findByStatusAndDueDateBefore(eq(BookStatus.CHECKED_OUT), any(LocalDate.class)))
                 .thenReturn(List.of(overdue));
 
         // available
@@ -169,12 +187,12 @@ class LibraryServiceTest {
     @Test
     @DisplayName("Should checkout book successfully for regular member")
     void shouldCheckoutBookForRegularMember() {
-        when(bookRepository.findByIsbn(availableBook.getIsbn()))
+        when(bookRepository.findByIsbnForUpdate(availableBook.getIsbn()))
                 .thenReturn(Optional.of(availableBook));
-        when(memberRepository.findByEmail(regularMember.getEmail()))
+        when(memberService.findByEmail(regularMember.getEmail()))
                 .thenReturn(Optional.of(regularMember));
         when(bookRepository.save(any(Book.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(memberRepository.save(any(Member.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(memberService.addLoan(regularMember, 3)).thenReturn(true);
 
         String result = libraryService.checkoutBook(availableBook.getIsbn(), regularMember.getEmail());
 
@@ -182,27 +200,25 @@ class LibraryServiceTest {
         verify(bookRepository).save(argThat(book ->
                 book.getStatus() == BookStatus.CHECKED_OUT
                         && regularMember.getEmail().equals(book.getCheckedOutBy())
-                        && book.getDueDate().equals(LocalDate.now().plusDays(14))
-        ));
-        verify(memberRepository).save(argThat(member ->
-                member.getBooksCheckedOut() == 1
+                        && book.getDueDate().equals(today.plusDays(14))
         ));
+        verify(memberService).addLoan(regularMember, 3);
     }
 
     @Test
     @DisplayName("Should apply correct loan period for premium member")
     void shouldApplyPremiumLoanPeriod() {
-        when(bookRepository.findByIsbn(availableBook.getIsbn()))
+        when(bookRepository.findByIsbnForUpdate(availableBook.getIsbn()))
                 .thenReturn(Optional.of(availableBook));
-        when(memberRepository.findByEmail(premiumMember.getEmail()))
+        when(memberService.findByEmail(premiumMember.getEmail()))
                 .thenReturn(Optional.of(premiumMember));
         when(bookRepository.save(any(Book.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(memberRepository.save(any(Member.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(memberService.addLoan(premiumMember, 10)).thenReturn(true);
 
         libraryService.checkoutBook(availableBook.getIsbn(), premiumMember.getEmail());
 
         verify(bookRepository).save(argThat(book ->
-                book.getDueDate().equals(LocalDate.now().plusDays(30))
+                book.getDueDate().equals(today.plusDays(30))
         ));
     }
 
@@ -210,10 +226,11 @@ class LibraryServiceTest {
     @DisplayName("Should enforce checkout limit for regular member")
     void shouldEnforceCheckoutLimitForRegularMember() {
         regularMember.setBooksCheckedOut(3); // at limit
-        when(bookRepository.findByIsbn(availableBook.getIsbn()))
+        when(bookRepository.findByIsbnForUpdate(availableBook.getIsbn()))
                 .thenReturn(Optional.of(availableBook));
-        when(memberRepository.findByEmail(regularMember.getEmail()))
+        when(memberService.findByEmail(regularMember.getEmail()))
                 .thenReturn(Optional.of(regularMember));
+        when(memberService.addLoan(regularMember, 3)).thenReturn(false);
 
         String result = libraryService.checkoutBook(availableBook.getIsbn(), regularMember.getEmail());
 
@@ -225,21 +242,22 @@ class LibraryServiceTest {
     @DisplayName("Should not checkout unavailable book")
     void shouldNotCheckoutUnavailableBook() {
         availableBook.setStatus(BookStatus.CHECKED_OUT);
-        when(bookRepository.findByIsbn(availableBook.getIsbn()))
+        when(bookRepository.findByIsbnForUpdate(availableBook.getIsbn()))
                 .thenReturn(Optional.of(availableBook));
-        when(memberRepository.findByEmail(regularMember.getEmail()))
+        when(memberService.findByEmail(regularMember.getEmail()))
                 .thenReturn(Optional.of(regularMember));
 
         String result = libraryService.checkoutBook(availableBook.getIsbn(), regularMember.getEmail());
 
         assertThat(result).isEqualTo("Book is not available");
         verify(bookRepository, never()).save(any());
+        verify(memberService, never()).addLoan(any(), anyInt());
     }
 
     @Test
     @DisplayName("Should throw exception when book not found")
     void shouldThrowExceptionWhenBookNotFound() {
-        when(bookRepository.findByIsbn(anyString())).thenReturn(Optional.empty());
+        when(bookRepository.findByIsbnForUpdate(anyString())).thenReturn(Optional.empty());
 
         assertThatThrownBy(() ->
                 libraryService.checkoutBook("invalid-isbn", regularMember.getEmail()))
@@ -252,14 +270,13 @@ class LibraryServiceTest {
     void shouldReturnBookSuccessfully() {
         availableBook.setStatus(BookStatus.CHECKED_OUT);
         availableBook.setCheckedOutBy(regularMember.getEmail());
-        availableBook.setDueDate(LocalDate.now().plusDays(7));
+        availableBook.setDueDate(today.plusDays(7));
 
-        when(bookRepository.findByIsbn(availableBook.getIsbn()))
+        when(bookRepository.findByIsbnForUpdate(availableBook.getIsbn()))
                 .thenReturn(Optional.of(availableBook));
-        when(memberRepository.findByEmail(regularMember.getEmail()))
+        when(memberService.findByEmail(regularMember.getEmail()))
                 .thenReturn(Optional.of(regularMember));
         when(bookRepository.save(any(Book.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(memberRepository.save(any(Member.class))).thenAnswer(inv -> inv.getArgument(0));
 
         regularMember.setBooksCheckedOut(1);
 
@@ -271,9 +288,7 @@ class LibraryServiceTest {
                         && book.getCheckedOutBy() == null
                         && book.getDueDate() == null
         ));
-        verify(memberRepository).save(argThat(member ->
-                member.getBooksCheckedOut() == 0
-        ));
+        verify(memberService).removeLoan(regularMember);
     }
 
     @Test
@@ -281,14 +296,13 @@ class LibraryServiceTest {
     void shouldCalculateLateFeeForRegularMember() {
         availableBook.setStatus(BookStatus.CHECKED_OUT);
         availableBook.setCheckedOutBy(regularMember.getEmail());
-        availableBook.setDueDate(LocalDate.now().minusDays(5)); // 5 days late
+        availableBook.setDueDate(today.minusDays(5)); // 5 days late
 
-        when(bookRepository.findByIsbn(availableBook.getIsbn()))
+        when(bookRepository.findByIsbnForUpdate(availableBook.getIsbn()))
                 .thenReturn(Optional.of(availableBook));
-        when(memberRepository.findByEmail(regularMember.getEmail()))
+        when(memberService.findByEmail(regularMember.getEmail()))
                 .thenReturn(Optional.of(regularMember));
         when(bookRepository.save(any(Book.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(memberRepository.save(any(Member.class))).thenAnswer(inv -> inv.getArgument(0));
 
         regularMember.setBooksCheckedOut(1);
 
@@ -302,14 +316,13 @@ class LibraryServiceTest {
     void shouldNotChargeLateFeeForPremiumMember() {
         availableBook.setStatus(BookStatus.CHECKED_OUT);
         availableBook.setCheckedOutBy(premiumMember.getEmail());
-        availableBook.setDueDate(LocalDate.now().minusDays(5)); // 5 days late
+        availableBook.setDueDate(today.minusDays(5)); // 5 days late
 
-        when(bookRepository.findByIsbn(availableBook.getIsbn()))
+        when(bookRepository.findByIsbnForUpdate(availableBook.getIsbn()))
                 .thenReturn(Optional.of(availableBook));
-        when(memberRepository.findByEmail(premiumMember.getEmail()))
+        when(memberService.findByEmail(premiumMember.getEmail()))
                 .thenReturn(Optional.of(premiumMember));
         when(bookRepository.save(any(Book.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(memberRepository.save(any(Member.class))).thenAnswer(inv -> inv.getArgument(0));
 
         premiumMember.setBooksCheckedOut(1);
 
@@ -343,12 +356,12 @@ class LibraryServiceTest {
     @Test
     @DisplayName("Student checkout uses 21-day loan period")
     void checkoutBook_student_hasCorrectLoanPeriod() {
-        when(bookRepository.findByIsbn(availableBook.getIsbn()))
+        when(bookRepository.findByIsbnForUpdate(availableBook.getIsbn()))
                 .thenReturn(Optional.of(availableBook));
-        when(memberRepository.findByEmail(studentMember.getEmail()))
+        when(memberService.findByEmail(studentMember.getEmail()))
                 .thenReturn(Optional.of(studentMember));
         when(bookRepository.save(any(Book.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(memberRepository.save(any(Member.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(memberService.addLoan(studentMember, 5)).thenReturn(true);
 
         String msg = libraryService.checkoutBook(availableBook.getIsbn(), studentMember.getEmail());
 
@@ -356,7 +369,92 @@ class LibraryServiceTest {
         verify(bookRepository).save(argThat(book ->
                 book.getStatus() == BookStatus.CHECKED_OUT
                         && studentMember.getEmail().equals(book.getCheckedOutBy())
-                        && book.getDueDate().equals(LocalDate.now().plusDays(21))
+                        && book.getDueDate().equals(today.plusDays(21))
         ));
     }
+
+    @Test
+    @DisplayName("Fee amounts read the same as %.2f formatting")
+    void dollarsMatchesFormat() {
+        for (double amount : new double[]{0.25, 0.5, 2.5, 3.0, 10.05, 12.75, 1234.5}) {
+            assertThat(LibraryService.dollars(amount)).isEqualTo(String.format(Locale.ROOT, "%.2f", amount));
+        }
+    }
+
+    @Test
+    @DisplayName("Due dates and late fees follow the injected clock")
+    void usesInjectedClock() {
+        var service = libraryService;
+        when(memberService.addLoan(regularMember, 3)).thenReturn(true);
+        availableBook.setStatus(BookStatus.CHECKED_OUT);
+        availableBook.setCheckedOutBy(regularMember.getEmail());
+        availableBook.setDueDate(LocalDate.of(2030, 1, 6)); // 4 days late on the fixed date
+        regularMember.setBooksCheckedOut(1);
+        when(bookRepository.findByIsbnForUpdate(availableBook.getIsbn())).thenReturn(Optional.of(availableBook));
+        when(memberService.findByEmail(regularMember.getEmail())).thenReturn(Optional.of(regularMember));
+
+        assertThat(service.returnBook(availableBook.getIsbn())).contains("Late fee: $2.00");
+
+        assertThat(service.checkoutBook(availableBook.getIsbn(), regularMember.getEmail()))
+                .endsWith("Due date: " + LocalDate.of(2030, 1, 24));
+    }
+
+    @Test
+    @DisplayName("Dated returns and checkouts use the recorded day, not today")
+    void usesRecordedDate() {
+        var service = libraryService;
+        when(memberService.addLoan(regularMember, 3)).thenReturn(true);
+        availableBook.setStatus(BookStatus.CHECKED_OUT);
+        availableBook.setCheckedOutBy(regularMember.getEmail());
+        availableBook.setDueDate(LocalDate.of(2030, 1, 6)); // late today, on time when returned
+        regularMember.setBooksCheckedOut(1);
+        when(bookRepository.findByIsbnForUpdate(availableBook.getIsbn())).thenReturn(Optional.of(availableBook));
+        when(memberService.findByEmail(regularMember.getEmail())).thenReturn(Optional.of(regularMember));
+
+        assertThat(service.returnBook(availableBook.getIsbn(), LocalDate.of(2030, 1, 5)))
+                .isEqualTo("Book returned successfully");
+
+        assertThat(service.checkoutBook(availableBook.getIsbn(), regularMember.getEmail(), LocalDate.of(2030, 1, 5)))
+                .endsWith("Due date: " + LocalDate.of(2030, 1, 19));
+    }
+
+    @Test
+    @DisplayName("Checkout limit is applied by the member row's update, not the cached count")
+    void checkoutLimitIsCheckedByTheRowUpdate() {
+        Member cached = member(regularMember.getEmail(), MembershipType.REGULAR, 0);
+        when(bookRepository.findByIsbnForUpdate(availableBook.getIsbn())).thenReturn(Optional.of(availableBook));
+        when(memberService.findByEmail(regularMember.getEmail())).thenReturn(Optional.of(cached));
+        when(memberService.addLoan(cached, 3)).thenReturn(false);   // three books out since it was cached
+
+        assertThat(libraryService.checkoutBook(availableBook.getIsbn(), regularMember.getEmail()))
+                .isEqualTo("Member has reached checkout limit");
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Circulation never writes the cached member copy back")
+    void circulationLeavesTheCachedCopyAlone() {
+        Member cached = member(regularMember.getEmail(), MembershipType.REGULAR, 0);
+        when(bookRepository.findByIsbnForUpdate(availableBook.getIsbn())).thenReturn(Optional.of(availableBook));
+        when(bookRepository.save(any(Book.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(memberService.findByEmail(regularMember.getEmail())).thenReturn(Optional.of(cached));
+        when(memberService.addLoan(cached, 3)).thenReturn(true);
+
+        libraryService.checkoutBook(availableBook.getIsbn(), regularMember.getEmail());
+        libraryService.returnBook(availableBook.getIsbn());
+
+        verify(memberService).removeLoan(cached);
+        verify(memberService, never()).save(any());
+        assertThat(cached.getBooksCheckedOut()).isZero();
+    }
+
+    private static Member member(String email, MembershipType type, int booksCheckedOut) {
+        Member member = new Member();
+        member.setId(1L);
+        member.setName("John Doe");
+        member.setEmail(email);
+        member.setMembershipType(type);
+        member.setBooksCheckedOut(booksCheckedOut);
+        return member;
+    }
 }
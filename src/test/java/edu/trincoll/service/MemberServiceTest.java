@@ -1,20 +1,26 @@
 package edu.trincoll.service;
 
 import edu.trincoll.model.Member;
+import edu.trincoll.model.MembershipType;
 import edu.trincoll.repository.MemberRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,13 +30,17 @@ class MemberServiceTest {
     @Mock
     private MemberRepository memberRepository;
 
-    @InjectMocks
+    @Mock
+    private SecondLevelCache secondLevelCache;
+
     private MemberService memberService;
 
     private Member member;
 
     @BeforeEach
     void setup() {
+        memberService = new MemberService(memberRepository, new MemberCache(100, Duration.ofMinutes(1)),
+                secondLevelCache);
         member = new Member();
         member.setId(1L);
         member.setEmail("john@example.com");
@@ -110,6 +120,149 @@ class MemberServiceTest {
         verify(memberRepository).save(any(Member.class));
     }
 
+    @Test
+    void findByEmail_secondLookupIsServedFromCache() {
+        when(memberRepository.findByEmail("john@example.com")).thenReturn(Optional.of(member));
+
+        memberService.findByEmail("john@example.com");
+        Optional<Member> second = memberService.findByEmail("john@example.com");
+
+        assertThat(second).isPresent();
+        assertThat(second.get().getBooksCheckedOut()).isEqualTo(2);
+        verify(memberRepository, times(1)).findByEmail("john@example.com");
+    }
+
+    @Test
+    void save_writesThroughToEmailAndIdLookups() {
+        when(memberRepository.save(any(Member.class))).thenAnswer(inv -> inv.getArgument(0));
+        memberService.incrementCheckoutCount(member);
+
+        assertThat(memberService.findByEmail("john@example.com").get().getBooksCheckedOut()).isEqualTo(3);
+        assertThat(memberService.findById(1L).get().getBooksCheckedOut()).isEqualTo(3);
+        verify(memberRepository, never()).findByEmail(anyString());
+        verify(memberRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void cachedMembersAreCopies() {
+        when(memberRepository.save(any(Member.class))).thenAnswer(inv -> inv.getArgument(0));
+        memberService.save(member);
+
+        Member first = memberService.findByEmail("john@example.com").get();
+        first.setBooksCheckedOut(99);
+
+        assertThat(memberService.findByEmail("john@example.com").get().getBooksCheckedOut()).isEqualTo(2);
+    }
+
+    @Test
+    void changingEmailEvictsOldKey() {
+        when(memberRepository.save(any(Member.class))).thenAnswer(inv -> inv.getArgument(0));
+        memberService.save(member);
+
+        Member renamed = memberService.findById(1L).get();
+        renamed.setEmail("johnny@example.com");
+        memberService.save(renamed);
+        when(memberRepository.findByEmail("john@example.com")).thenReturn(Optional.empty());
+
+        assertThat(memberService.findByEmail("john@example.com")).isEmpty();
+        assertThat(memberService.findByEmail("johnny@example.com")).isPresent();
+    }
+
+    @Test
+    void cacheReportsHitRatio() {
+        var cache = new MemberCache(100, Duration.ofMinutes(1));
+        var service = new MemberService(memberRepository, cache, secondLevelCache);
+        when(memberRepository.findByEmail("john@example.com")).thenReturn(Optional.of(member));
+
+        service.findByEmail("john@example.com");
+        service.findByEmail("john@example.com");
+
+        assertThat(cache.hitRatio()).isGreaterThan(0.0);
+    }
+
+    @Test
+    void changeMembershipType_isOneUpdateAndDropsCachedMembers() {
+        when(memberRepository.save(any(Member.class))).thenAnswer(inv -> inv.getArgument(0));
+        memberService.save(member);
+        when(memberRepository.updateMembershipType(MembershipType.REGULAR, MembershipType.STUDENT)).thenReturn(7);
+        when(memberRepository.findByEmail("john@example.com")).thenReturn(Optional.of(member));
+
+        assertThat(memberService.changeMembershipType(MembershipType.REGULAR, MembershipType.STUDENT)).isEqualTo(7);
+
+        memberService.findByEmail("john@example.com");
+        verify(memberRepository).findByEmail("john@example.com");
+    }
+
+    @Test
+    void changeMembershipTypeByEmail_skipsEmptyList() {
+        assertThat(memberService.changeMembershipType(List.of(), MembershipType.PREMIUM)).isZero();
+        verifyNoInteractions(memberRepository);
+    }
 
+    @Test
+    void evictAll_alsoDropsSecondLevelCache() {
+        memberService.evictAll();
 
+        verify(secondLevelCache).evict(Member.class);
+    }
+
+    @Test
+    void evictAll_insideTransactionWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            memberService.evictAll();
+            verifyNoInteractions(secondLevelCache);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> {
+                sync.afterCommit();
+                sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            });
+            verify(secondLevelCache).evict(Member.class);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void addLoan_dropsTheCachedMemberOnceCommitted() {
+        when(memberRepository.findByEmail("john@example.com")).thenReturn(Optional.of(member));
+        when(memberRepository.addLoan(1L, 3)).thenReturn(true);
+        Member cached = memberService.findByEmail("john@example.com").get();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(memberService.addLoan(cached, 3)).isTrue();
+            verifyNoInteractions(secondLevelCache);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(secondLevelCache).evict(Member.class, 1L);
+        memberService.findByEmail("john@example.com");
+        verify(memberRepository, times(2)).findByEmail("john@example.com");
+    }
+
+    @Test
+    void refusedLoanKeepsTheCachedMember() {
+        when(memberRepository.findByEmail("john@example.com")).thenReturn(Optional.of(member));
+        when(memberRepository.addLoan(1L, 2)).thenReturn(false);
+        Member cached = memberService.findByEmail("john@example.com").get();
+
+        assertThat(memberService.addLoan(cached, 2)).isFalse();
+
+        verifyNoInteractions(secondLevelCache);
+        memberService.findByEmail("john@example.com");
+        verify(memberRepository).findByEmail("john@example.com");
+    }
+
+    @Test
+    void removeLoan_dropsTheCachedMember() {
+        when(memberRepository.removeLoan(1L)).thenReturn(true);
+
+        assertThat(memberService.removeLoan(member)).isTrue();
+
+        verify(secondLevelCache).evict(Member.class, 1L);
+    }
 }
@@ -1,6 +1,7 @@
 package edu.trincoll.service;
 
 import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
 import edu.trincoll.repository.BookRepository;
 import edu.trincoll.service.report.OverdueReportGenerator;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,7 +29,7 @@ class OverdueReportGeneratorTest {
         b.setTitle("T1"); b.setAuthor("A1");
         b.setDueDate(LocalDate.now().minusDays(1)); b.setCheckedOutBy("x@y.com");
 
-        when(bookRepository.findByDueDateBefore(any(LocalDate.class)))
+        when(bookRepository.findByStatusAndDueDateBefore(eq(BookStatus.CHECKED_OUT), any(LocalDate.class)))
                 .thenReturn(List.of(b));
 
         var gen = new OverdueReportGenerator(bookRepository);
@@ -0,0 +1,118 @@
+package edu.trincoll.service;
+
+import edu.trincoll.model.CatalogVersion;
+import edu.trincoll.model.Member;
+import edu.trincoll.model.MembershipType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PolicyTableProviderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void withoutFileUsesBuiltInTable() {
+        var provider = new PolicyTableProvider("");
+        var factory = new CheckoutPolicyFactory(provider);
+
+        var regular = factory.getPolicyFor(MembershipType.REGULAR);
+        assertThat(regular.getMaxBooks()).isEqualTo(3);
+        assertThat(regular.getLoanPeriodDays()).isEqualTo(14);
+        assertThat(factory.getPolicyFor(MembershipType.PREMIUM).getLoanPeriodDays()).isEqualTo(30);
+        assertThat(factory.getPolicyFor(MembershipType.STUDENT).getMaxBooks()).isEqualTo(5);
+        // shared immutable instances, no allocation per lookup
+        assertThat(factory.getPolicyFor(MembershipType.REGULAR)).isSameAs(regular);
+    }
+
+    @Test
+    void fileOverridesDefaultsAndReloadsWhenChanged() throws Exception {
+        Path file = dir.resolve("policies.properties");
+        Files.writeString(file, "regular.loan-days=7\nstudent.late-fee-cents-per-day=10\n");
+        var provider = new PolicyTableProvider(file.toString());
+        var fees = new LateFeeCalculatorFactory(provider);
+
+        assertThat(provider.current().get(MembershipType.REGULAR).loanPeriodDays()).isEqualTo(7);
+        assertThat(provider.current().get(MembershipType.REGULAR).maxBooks()).isEqualTo(3);
+        assertThat(fees.getCalculatorFor(MembershipType.STUDENT).calculateLateFee(4)).isEqualTo(0.40);
+
+        Files.writeString(file, "regular.loan-days=10\nregular.max-books=1\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(5)));
+
+        assertThat(provider.reload()).isTrue();
+        var regular = provider.current().get(MembershipType.REGULAR);
+        assertThat(regular.loanPeriodDays()).isEqualTo(10);
+        Member member = new Member();
+        member.setBooksCheckedOut(1);
+        assertThat(regular.canCheckout(member)).isFalse();
+        assertThat(fees.getCalculatorFor(MembershipType.STUDENT).calculateLateFee(4)).isEqualTo(1.00);
+    }
+
+    @Test
+    void unchangedFileIsNotReparsed() throws Exception {
+        Path file = dir.resolve("policies.properties");
+        Files.writeString(file, "premium.max-books=20\n");
+        var provider = new PolicyTableProvider(file.toString());
+        var before = provider.current();
+
+        assertThat(provider.reload()).isFalse();
+        assertThat(provider.current()).isSameAs(before);
+    }
+
+    @Test
+    void reloadMovesTheCatalogVersion() throws Exception {
+        Path file = dir.resolve("policies.properties");
+        Files.writeString(file, "premium.max-books=20\n");
+        var provider = new PolicyTableProvider(file.toString());
+        long before = CatalogVersion.current();
+
+        Files.writeString(file, "premium.max-books=25\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(5)));
+
+        assertThat(provider.reload()).isTrue();
+        assertThat(CatalogVersion.current()).isGreaterThan(before);
+    }
+
+    @Test
+    void invalidFileKeepsPreviousTable() throws Exception {
+        Path file = dir.resolve("policies.properties");
+        Files.writeString(file, "premium.max-books=20\n");
+        var provider = new PolicyTableProvider(file.toString());
+        var before = provider.current();
+
+        Files.writeString(file, "premium.loan-days=-1\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(5)));
+
+        assertThat(provider.reload()).isFalse();
+        assertThat(provider.current()).isSameAs(before);
+        assertThat(provider.current().get(MembershipType.PREMIUM).maxBooks()).isEqualTo(20);
+    }
+
+    @Test
+    void invalidFileIsSkippedUntilItChanges() throws Exception {
+        Path file = dir.resolve("policies.properties");
+        Files.writeString(file, "premium.max-books=20\n");
+        var provider = new PolicyTableProvider(file.toString());
+        FileTime broken = FileTime.from(Instant.now().plusSeconds(5));
+        Files.writeString(file, "premium.loan-days=-1\n");
+        Files.setLastModifiedTime(file, broken);
+        assertThat(provider.reload()).isFalse();
+
+        // same modification time: the version already failed and is not read again
+        Files.writeString(file, "premium.max-books=25\n");
+        Files.setLastModifiedTime(file, broken);
+        assertThat(provider.reload()).isFalse();
+        assertThat(provider.current().get(MembershipType.PREMIUM).maxBooks()).isEqualTo(20);
+
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(10)));
+        assertThat(provider.reload()).isTrue();
+        assertThat(provider.current().get(MembershipType.PREMIUM).maxBooks()).isEqualTo(25);
+    }
+}
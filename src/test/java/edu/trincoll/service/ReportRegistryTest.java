@@ -1,14 +1,15 @@
 package edu.trincoll.service;
 
 import edu.trincoll.repository.BookRepository;
-import edu.trincoll.repository.MemberRepository;
 import edu.trincoll.service.report.ReportGenerator;
 import edu.trincoll.service.report.ReportRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Clock;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -20,7 +21,7 @@ import static org.mockito.Mockito.*;
 class ReportRegistryTest {
 
     @Mock private BookRepository bookRepository;
-    @Mock private MemberRepository memberRepository;
+    @Mock private MemberService memberService;
     @Mock private SearchFacade searchFacade;
     @Mock private ReportRegistry reportRegistry;
     @Mock private ReportGenerator generator;
@@ -30,9 +31,8 @@ class ReportRegistryTest {
         when(reportRegistry.get("custom")).thenReturn(generator);
         when(generator.generateReport()).thenReturn("From registry");
 
-        // Explicitly construct LibraryService with all dependencies, including the mocked registry
-        LibraryService service =
-                new LibraryService(bookRepository, memberRepository, searchFacade, reportRegistry);
+        LibraryService service = new LibraryService(bookRepository, searchFacade, reportRegistry,
+                new CheckoutPolicyFactory(), new LateFeeCalculatorFactory(), memberService, Clock.systemUTC());
 
         String result = service.generateReport("custom");
 
@@ -51,4 +51,18 @@ class ReportRegistryTest {
         assertEquals("ok", reg.get("foo").generateReport());
         assertThrows(IllegalArgumentException.class, () -> reg.get("nope"));
     }
+
+    @Test
+    void timesReportsWhenMetricsAreWired() {
+        ReportGenerator foo = new ReportGenerator() {
+            @Override public String getType() { return "foo"; }
+            @Override public String generateReport() { return "ok"; }
+        };
+        var meters = new SimpleMeterRegistry();
+
+        ReportRegistry reg = new ReportRegistry(List.of(foo), meters);
+
+        assertEquals("ok", reg.get("FOO").generateReport());
+        assertThat(meters.get("library.report").tag("type", "foo").timer().count()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,111 @@
+package edu.trincoll.service.batch;
+
+import edu.trincoll.admission.LaneScheduler;
+import edu.trincoll.model.Book;
+import edu.trincoll.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogImportServiceTest {
+
+    @Mock BookRepository bookRepository;
+    @Mock EntityManager entityManager;
+    @Mock TransactionTemplate transactionTemplate;
+
+    @TempDir
+    Path dir;
+
+    private CatalogImportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CatalogImportService(bookRepository, entityManager, transactionTemplate, 2, 2,
+                LaneScheduler.unbounded());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        doAnswer(inv -> {
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void importsValidRowsAndReportsRejections() throws Exception {
+        runTransactionsInline();
+        when(bookRepository.findAllIsbns()).thenReturn(List.of("EXISTING"));
+        Path csv = dir.resolve("catalog.csv");
+        Files.writeString(csv, """
+                isbn,title,author,publication_date
+                111,"Clean Code, 2nd Ed",Robert Martin,2008-08-01
+                222,Refactoring,Martin Fowler,1999-07-08
+
+                EXISTING,Dup of catalog,Someone,2000-01-01
+                111,Dup in file,Someone,2000-01-01
+                333,No Date,Someone,
+                444,Bad Date,Someone,yesterday
+                555,"He said ""hi\""",Quoted Author,2020-02-02
+                """);
+
+        ImportReport report = service.importCatalog(csv);
+
+        assertThat(report.imported()).isEqualTo(3);
+        assertThat(report.rejected()).isEqualTo(4);
+        assertThat(report.rejections()).extracting(ImportReport.RejectedRow::lineNumber)
+                .containsExactly(5L, 6L, 7L, 8L);
+        assertThat(report.rejections().get(0).reason()).isEqualTo("duplicate ISBN EXISTING");
+        assertThat(report.rejections().get(2).reason()).isEqualTo("Publication date is required");
+
+        var persisted = ArgumentCaptor.forClass(Book.class);
+        verify(entityManager, times(3)).persist(persisted.capture());
+        assertThat(persisted.getAllValues()).extracting(Book::getTitle)
+                .containsExactly("Clean Code, 2nd Ed", "Refactoring", "He said \"hi\"");
+        assertThat(persisted.getAllValues().get(0).getPublicationDate()).isEqualTo(LocalDate.of(2008, 8, 1));
+    }
+
+    @Test
+    void readsTabSeparatedFilesWithReorderedColumns() throws Exception {
+        runTransactionsInline();
+        when(bookRepository.findAllIsbns()).thenReturn(List.of());
+        Path tsv = dir.resolve("catalog.tsv");
+        Files.writeString(tsv, "Title\tISBN\tpublicationDate\tAuthor\nDune\t999\t1965-08-01\tFrank Herbert\n");
+
+        ImportReport report = service.importCatalog(tsv);
+
+        assertThat(report.imported()).isEqualTo(1);
+        verify(entityManager).persist(argThat(b -> ((Book) b).getIsbn().equals("999")));
+    }
+
+    @Test
+    void missingColumnFailsFast() throws Exception {
+        when(bookRepository.findAllIsbns()).thenReturn(List.of());
+        Path csv = dir.resolve("catalog.csv");
+        Files.writeString(csv, "isbn,title\n1,x\n");
+
+        assertThatThrownBy(() -> service.importCatalog(csv))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("author");
+        verifyNoInteractions(entityManager);
+    }
+}
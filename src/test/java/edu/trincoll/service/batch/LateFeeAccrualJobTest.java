@@ -0,0 +1,185 @@
+package edu.trincoll.service.batch;
+
+import edu.trincoll.admission.LaneScheduler;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.JobCheckpoint;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.JobCheckpointRepository;
+import edu.trincoll.repository.OverdueLoan;
+import edu.trincoll.service.LateFeeCalculatorFactory;
+import edu.trincoll.service.PremiumLateFeeCalculator;
+import edu.trincoll.service.RegularLateFeeCalculator;
+import edu.trincoll.service.StudentLateFeeCalculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.sql.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LateFeeAccrualJobTest {
+
+    @Mock BookRepository bookRepository;
+    @Mock JobCheckpointRepository checkpointRepository;
+    @Mock JdbcTemplate jdbcTemplate;
+    @Mock TransactionTemplate transactionTemplate;
+
+    private final LateFeeCalculatorFactory factory = new LateFeeCalculatorFactory(
+            new RegularLateFeeCalculator(), new PremiumLateFeeCalculator(), new StudentLateFeeCalculator());
+
+    private final LocalDate today = LocalDate.of(2025, 3, 14);
+    private final Clock clock = Clock.fixed(today.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+    private JobCheckpoint checkpoint;
+    private LateFeeAccrualJob job;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        checkpoint = new JobCheckpoint("late-fee-accrual", today);
+        when(checkpointRepository.findById("late-fee-accrual")).thenReturn(Optional.of(checkpoint));
+        lenient().when(checkpointRepository.save(any(JobCheckpoint.class))).thenAnswer(inv -> inv.getArgument(0));
+        job = new LateFeeAccrualJob(bookRepository, checkpointRepository, factory, jdbcTemplate, transactionTemplate,
+                2, LaneScheduler.unbounded(), clock);
+    }
+
+    @Test
+    void walksChunksAndPricesEachLoanByMembershipType() throws Exception {
+        var regular = new OverdueLoan(1L, "r@x.com", MembershipType.REGULAR, today.minusDays(4));
+        var student = new OverdueLoan(2L, "s@x.com", MembershipType.STUDENT, today.minusDays(4));
+        var premium = new OverdueLoan(5L, "p@x.com", MembershipType.PREMIUM, today.minusDays(9));
+        when(bookRepository.findOverdueLoansAfter(eq(BookStatus.CHECKED_OUT), eq(today), eq(0L), any(Limit.class)))
+                .thenReturn(List.of(regular, student));
+        when(bookRepository.findOverdueLoansAfter(eq(BookStatus.CHECKED_OUT), eq(today), eq(2L), any(Limit.class)))
+                .thenReturn(List.of(premium));
+
+        AccrualRun run = job.run();
+
+        assertThat(run.rows()).isEqualTo(3);
+        assertThat(run.chunks()).isEqualTo(2);
+        assertThat(checkpoint.getLastProcessedId()).isEqualTo(5L);
+        assertThat(checkpoint.isCompleted()).isTrue();
+
+        var setters = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), setters.capture());
+        var first = setters.getAllValues().get(0);
+        assertThat(first.getBatchSize()).isEqualTo(2);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        first.setValues(ps, 0);
+        verify(ps).setLong(5, 200L);   // 4 days * 50 cents
+        first.setValues(ps, 1);
+        verify(ps).setLong(5, 100L);   // 4 days * 25 cents
+    }
+
+    @Test
+    void resumesAfterCheckpointedId() {
+        checkpoint.setLastProcessedId(40L);
+        when(bookRepository.findOverdueLoansAfter(eq(BookStatus.CHECKED_OUT), eq(today), eq(40L), any(Limit.class)))
+                .thenReturn(List.of());
+
+        AccrualRun run = job.run();
+
+        assertThat(run.resumedAfterId()).isEqualTo(40L);
+        assertThat(run.rows()).isZero();
+        verify(bookRepository, never()).findOverdueLoansAfter(any(), any(), eq(0L), any());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void completedRunForTodayIsNotRepeated() {
+        checkpoint.setCompleted(true);
+
+        AccrualRun run = job.run();
+
+        assertThat(run.rows()).isZero();
+        verify(bookRepository, never()).findOverdueLoansAfter(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void completedCheckpointFromEarlierNightStartsOver() {
+        checkpoint.setRunDate(today.minusDays(1));
+        checkpoint.setLastProcessedId(99L);
+        checkpoint.setCompleted(true);
+        when(bookRepository.findOverdueLoansAfter(eq(BookStatus.CHECKED_OUT), eq(today), eq(0L), any(Limit.class)))
+                .thenReturn(List.of());
+
+        AccrualRun run = job.run();
+
+        assertThat(run.resumedAfterId()).isZero();
+        assertThat(checkpoint.getRunDate()).isEqualTo(today);
+    }
+
+    @Test
+    void unfinishedEarlierNightIsCompletedBeforeToday() throws Exception {
+        LocalDate yesterday = today.minusDays(1);
+        checkpoint.setRunDate(yesterday);
+        checkpoint.setLastProcessedId(7L);
+        var late = new OverdueLoan(9L, "r@x.com", MembershipType.REGULAR, yesterday.minusDays(2));
+        when(bookRepository.findOverdueLoansAfter(eq(BookStatus.CHECKED_OUT), eq(yesterday), eq(7L), any(Limit.class)))
+                .thenReturn(List.of(late));
+        when(bookRepository.findOverdueLoansAfter(eq(BookStatus.CHECKED_OUT), eq(today), eq(0L), any(Limit.class)))
+                .thenReturn(List.of());
+
+        AccrualRun run = job.run();
+
+        assertThat(run.runDate()).isEqualTo(today);
+        assertThat(checkpoint.getRunDate()).isEqualTo(today);
+        InOrder order = inOrder(bookRepository);
+        order.verify(bookRepository).findOverdueLoansAfter(eq(BookStatus.CHECKED_OUT), eq(yesterday), eq(7L), any(Limit.class));
+        order.verify(bookRepository).findOverdueLoansAfter(eq(BookStatus.CHECKED_OUT), eq(today), eq(0L), any(Limit.class));
+
+        // last night's loan is priced as of last night
+        var setter = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), setter.capture());
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, 0);
+        verify(ps).setDate(3, Date.valueOf(yesterday));
+        verify(ps).setLong(4, 2L);
+    }
+
+    @Test
+    void resumeFinishesInterruptedRunWithoutStartingANewOne() {
+        LocalDate yesterday = today.minusDays(1);
+        checkpoint.setRunDate(yesterday);
+        checkpoint.setLastProcessedId(7L);
+        when(bookRepository.findOverdueLoansAfter(eq(BookStatus.CHECKED_OUT), eq(yesterday), eq(7L), any(Limit.class)))
+                .thenReturn(List.of());
+
+        Optional<AccrualRun> run = job.resume();
+
+        assertThat(run).map(AccrualRun::runDate).contains(yesterday);
+        assertThat(checkpoint.isCompleted()).isTrue();
+        verify(bookRepository, never()).findOverdueLoansAfter(any(), eq(today), anyLong(), any());
+    }
+
+    @Test
+    void resumeWithNothingInterruptedDoesNothing() {
+        checkpoint.setCompleted(true);
+
+        assertThat(job.resume()).isEmpty();
+        verifyNoInteractions(bookRepository, jdbcTemplate);
+    }
+}
@@ -0,0 +1,120 @@
+package edu.trincoll.service.batch;
+
+import edu.trincoll.admission.LaneScheduler;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.service.MemberService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MemberImportServiceTest {
+
+    @Mock JdbcTemplate jdbcTemplate;
+    @Mock TransactionTemplate transactionTemplate;
+    @Mock MemberService memberService;
+
+    @TempDir
+    Path dir;
+
+    private final LocalDate today = LocalDate.of(2025, 3, 14);
+    private final Clock clock = Clock.fixed(today.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+    private MemberImportService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        service = new MemberImportService(jdbcTemplate, transactionTemplate, memberService, 100,
+                LaneScheduler.unbounded(), clock);
+        lenient().doAnswer(inv -> {
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void upsertsUniqueMembersInOneBatchAndEvictsCache() throws Exception {
+        Path csv = dir.resolve("students.csv");
+        Files.writeString(csv, """
+                name,email,membership_type
+                Ann,ann@uni.edu,
+                Ben,ben@uni.edu,premium
+                Ann Again,ann@uni.edu,
+                ,nobody@uni.edu,
+                Cy,not-an-email,
+                Dee,dee@uni.edu,gold
+                """);
+
+        ImportReport report = service.importMembers(csv, MembershipType.STUDENT);
+
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.rejected()).isEqualTo(4);
+        assertThat(report.rejections()).extracting(ImportReport.RejectedRow::reason).containsExactly(
+                "duplicate email ann@uni.edu", "Name is required",
+                "invalid email 'not-an-email'", "unknown membership type 'gold'");
+
+        var setter = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), setter.capture());
+        assertThat(setter.getValue().getBatchSize()).isEqualTo(2);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, 0);
+        verify(ps).setString(2, "ann@uni.edu");
+        verify(ps).setString(3, "STUDENT");
+        verify(ps).setDate(4, Date.valueOf(today));
+        setter.getValue().setValues(ps, 1);
+        verify(ps).setString(3, "PREMIUM");
+
+        verify(memberService).evictAll();
+    }
+
+    @Test
+    void membershipTypeColumnIsOptional() throws Exception {
+        Path tsv = dir.resolve("members.tsv");
+        Files.writeString(tsv, "email\tname\nzoe@x.org\tZoe\n");
+
+        ImportReport report = service.importMembers(tsv, MembershipType.REGULAR);
+
+        assertThat(report.imported()).isEqualTo(1);
+        verify(jdbcTemplate).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+    }
+
+    @Test
+    void cacheIsEvictedInsideEachChunksTransaction() throws Exception {
+        Path csv = dir.resolve("members.csv");
+        Files.writeString(csv, "name,email\nAnn,ann@x.org\nBen,ben@x.org\n");
+        service = new MemberImportService(jdbcTemplate, transactionTemplate, memberService, 1,
+                LaneScheduler.unbounded(), clock);
+
+        service.importMembers(csv, MembershipType.REGULAR);
+
+        InOrder order = inOrder(transactionTemplate, jdbcTemplate, memberService);
+        for (int chunk = 0; chunk < 2; chunk++) {
+            order.verify(transactionTemplate).executeWithoutResult(any());
+            order.verify(jdbcTemplate).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+            order.verify(memberService).evictAll();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package edu.trincoll.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.trincoll.admission.LaneBusyException;
+import edu.trincoll.admission.LaneScheduler;
+import edu.trincoll.admission.WorkLane;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.BookRow;
+import edu.trincoll.repository.LoanRow;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.repository.MemberRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogExportServiceTest {
+
+    @Mock BookRepository bookRepository;
+    @Mock MemberRepository memberRepository;
+    @Mock PlatformTransactionManager transactionManager;
+
+    private CatalogExportService service;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        var mapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        service = new CatalogExportService(bookRepository, memberRepository, transactionManager, mapper,
+                LaneScheduler.unbounded());
+    }
+
+    @Test
+    void writesOneJsonObjectPerLineInsideReadOnlyTransaction() {
+        when(bookRepository.streamAllRows()).thenReturn(Stream.of(
+                new BookRow(1L, "111", "Dune", "Frank Herbert", LocalDate.of(1965, 8, 1),
+                        BookStatus.AVAILABLE, null, null),
+                new BookRow(2L, "222", "Emma", "Jane Austen", LocalDate.of(1815, 12, 23),
+                        BookStatus.CHECKED_OUT, "a@x.com", LocalDate.of(2026, 1, 5))));
+        var out = new ByteArrayOutputStream();
+
+        long rows = service.exportBooks(out);
+
+        assertThat(rows).isEqualTo(2);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"id\":1,\"isbn\":\"111\"").contains("\"publicationDate\":\"1965-08-01\"");
+        assertThat(lines[1]).contains("\"status\":\"CHECKED_OUT\"", "\"dueDate\":\"2026-01-05\"");
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith("}\n");
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void flushesInChunksAndClosesTheCursor() {
+        var closed = new AtomicBoolean();
+        int total = CatalogExportService.FLUSH_EVERY * 2 + 1;
+        when(bookRepository.streamLoans(BookStatus.CHECKED_OUT)).thenReturn(LongStream.rangeClosed(1, total)
+                .mapToObj(id -> new LoanRow(id, "isbn" + id, "m@x.com", MembershipType.STUDENT, LocalDate.now()))
+                .onClose(() -> closed.set(true)));
+        var linesAtFlush = new ArrayList<Long>();
+        var out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                linesAtFlush.add(toString(StandardCharsets.UTF_8).lines().count());
+            }
+        };
+
+        assertThat(service.exportLoans(out)).isEqualTo(total);
+
+        assertThat(linesAtFlush).startsWith(1000L, 2000L, (long) total);
+        assertThat(closed).isTrue();
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(total);
+    }
+
+    @Test
+    void exportHoldsAnExportSlotUntilTheLastRow() {
+        var lanes = new LaneScheduler(new MockEnvironment()
+                .withProperty("library.lanes.export.permits", "1")
+                .withProperty("library.lanes.reporting.permits", "1")
+                .withProperty("library.lanes.max-wait-ms", "10"), new SimpleMeterRegistry());
+        var mapper = new ObjectMapper().findAndRegisterModules();
+        var laned = new CatalogExportService(bookRepository, memberRepository, transactionManager, mapper, lanes);
+        var refusedWhileStreaming = new AtomicBoolean();
+        var reportRefusedWhileStreaming = new AtomicBoolean();
+        when(memberRepository.streamAllRows()).thenReturn(Stream.of(
+                new MemberRow(1L, "Ann", "a@x.com", MembershipType.REGULAR, LocalDate.of(2020, 1, 1), 0))
+                .peek(row -> {
+                    refusedWhileStreaming.set(refused(lanes, WorkLane.EXPORT));
+                    reportRefusedWhileStreaming.set(refused(lanes, WorkLane.REPORTING));
+                }));
+
+        laned.exportMembers(new ByteArrayOutputStream());
+
+        assertThat(refusedWhileStreaming).isTrue();
+        assertThat(reportRefusedWhileStreaming).isFalse();
+        assertThat(refused(lanes, WorkLane.EXPORT)).isFalse();
+    }
+
+    @Test
+    void brokenClientConnectionRollsBackAndClosesTheCursor() {
+        var closed = new AtomicBoolean();
+        when(memberRepository.streamAllRows()).thenReturn(Stream.of(
+                new MemberRow(1L, "Ann", "a@x.com", MembershipType.REGULAR,
+                        LocalDate.of(2020, 1, 1), 0)).onClose(() -> closed.set(true)));
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThatThrownBy(() -> service.exportMembers(broken)).isInstanceOf(UncheckedIOException.class);
+
+        assertThat(closed).isTrue();
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    private static boolean refused(LaneScheduler lanes, WorkLane lane) {
+        try {
+            lanes.call(lane, () -> "work");
+            return false;
+        } catch (LaneBusyException e) {
+            return true;
+        }
+    }
+}
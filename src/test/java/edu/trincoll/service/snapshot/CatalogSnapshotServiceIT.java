@@ -0,0 +1,136 @@
+package edu.trincoll.service.snapshot;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.Member;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against its own in-memory database, which starts from a snapshot
+ * holding one loaned book (id 1000) and its borrower (id 500).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogSnapshotServiceIT {
+    private static final Path SNAPSHOT = initialSnapshot();
+
+    @DynamicPropertySource
+    static void snapshot(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:snapshot-it");
+        registry.add("library.datasource.read.url", () -> "jdbc:h2:mem:snapshot-it");
+        registry.add("library.snapshot.file", SNAPSHOT::toString);
+    }
+
+    @Autowired CatalogSnapshotService snapshotService;
+    @Autowired BookRepository bookRepository;
+    @Autowired MemberRepository memberRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    void snapshotIsLoadedAtStartup() {
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT title FROM books WHERE id = 1000 AND status = 'CHECKED_OUT' AND checked_out_by = 'snap@x.org'",
+                String.class)).isEqualTo("Snapshot");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT books_checked_out FROM members WHERE id = 500 AND email = 'snap@x.org'",
+                Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void newRowsAreNumberedAfterTheLoadedIds() {
+        Book book = new Book();
+        book.setIsbn("SNAP-NEW");
+        book.setTitle("After restart");
+        book.setAuthor("Author");
+        book.setPublicationDate(LocalDate.of(2020, 1, 1));
+        book.setStatus(BookStatus.AVAILABLE);
+        Member member = new Member("New", "snap-new@x.org");
+
+        assertThat(bookRepository.save(book).getId()).isGreaterThan(1000L);
+        assertThat(memberRepository.save(member).getId()).isGreaterThan(500L);
+    }
+
+    @Test
+    void scheduledWriteReplacesTheSnapshotWithTheCurrentCatalog() throws IOException {
+        int books = count("books");
+
+        snapshotService.writeIfEnabled();
+
+        var reader = new SnapshotFile.Reader(ByteBuffer.wrap(Files.readAllBytes(SNAPSHOT)));
+        assertThat(reader.createdAtMillis()).isGreaterThan(1L);
+        assertThat(reader.readInt()).isEqualTo(books);
+        assertThat(SNAPSHOT.resolveSibling(SNAPSHOT.getFileName() + ".tmp")).doesNotExist();
+    }
+
+    @Test
+    void writtenSnapshotRestoresAnEmptiedDatabase() {
+        int books = count("books");
+        int members = count("members");
+        assertThat(snapshotService.write()).isPresent();
+
+        jdbcTemplate.update("DELETE FROM books");
+        jdbcTemplate.update("DELETE FROM members");
+        SnapshotStats stats = snapshotService.load().orElseThrow();
+
+        assertThat(stats.books()).isEqualTo(books);
+        assertThat(stats.members()).isEqualTo(members);
+        assertThat(count("books")).isEqualTo(books);
+        assertThat(count("members")).isEqualTo(members);
+    }
+
+    @Test
+    void snapshotIsIgnoredWhenTheDatabaseIsNotEmpty() {
+        assertThat(snapshotService.load()).isEmpty();
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private static Path initialSnapshot() {
+        try {
+            Path file = Files.createTempDirectory("snapshot-it").resolve("library.snapshot");
+            file.toFile().deleteOnExit();
+            try (OutputStream out = Files.newOutputStream(file);
+                 var writer = new SnapshotFile.Writer(out, 1L)) {
+                writer.writeInt(1);
+                writer.writeLong(1000L);
+                writer.writeString("SNAP-1");
+                writer.writeString("Snapshot");
+                writer.writeString("Author");
+                writer.writeDate(LocalDate.of(2001, 1, 1));
+                writer.writeDate(LocalDate.of(2030, 1, 1));
+                writer.writeString(BookStatus.CHECKED_OUT.name());
+                writer.writeString("snap@x.org");
+                writer.writeInt(1);
+                writer.writeLong(500L);
+                writer.writeString("Snap");
+                writer.writeString("snap@x.org");
+                writer.writeString("REGULAR");
+                writer.writeDate(LocalDate.of(2020, 1, 1));
+                writer.writeInt(1);
+            }
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package edu.trincoll.service.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnapshotFileTest {
+
+    private byte[] sample() throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var writer = new SnapshotFile.Writer(bytes, 1234L)) {
+            writer.writeInt(1);
+            writer.writeLong(42L);
+            writer.writeString("Kafka on the Shore – 海辺のカフカ");
+            writer.writeString(null);
+            writer.writeString("x".repeat(300));   // multi-byte varint length
+            writer.writeDate(LocalDate.of(2002, 9, 12));
+            writer.writeDate(null);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void roundTripsEveryFieldType() throws Exception {
+        var reader = new SnapshotFile.Reader(ByteBuffer.wrap(sample()));
+
+        assertThat(reader.createdAtMillis()).isEqualTo(1234L);
+        assertThat(reader.readInt()).isEqualTo(1);
+        assertThat(reader.readLong()).isEqualTo(42L);
+        assertThat(reader.readString()).isEqualTo("Kafka on the Shore – 海辺のカフカ");
+        assertThat(reader.readString()).isNull();
+        assertThat(reader.readString()).hasSize(300);
+        assertThat(reader.readDate()).isEqualTo(LocalDate.of(2002, 9, 12));
+        assertThat(reader.readDate()).isNull();
+        assertThat(reader.fullyRead()).isTrue();
+    }
+
+    @Test
+    void rejectsCorruptedSnapshot() throws Exception {
+        byte[] bytes = sample();
+        bytes[20] ^= 1;
+
+        assertThatThrownBy(() -> new SnapshotFile.Reader(ByteBuffer.wrap(bytes)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("checksum");
+    }
+
+    @Test
+    void rejectsOtherFiles() {
+        assertThatThrownBy(() -> new SnapshotFile.Reader(ByteBuffer.wrap("isbn,title\n".getBytes())))
+                .isInstanceOf(IOException.class);
+    }
+}
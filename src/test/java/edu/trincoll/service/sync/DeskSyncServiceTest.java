@@ -0,0 +1,137 @@
+package edu.trincoll.service.sync;
+
+import edu.trincoll.admission.LaneScheduler;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.LoanRow;
+import edu.trincoll.service.LibraryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeskSyncServiceTest {
+
+    @Mock LibraryService libraryService;
+    @Mock BookRepository bookRepository;
+
+    private final Instant t0 = Instant.parse("2026-03-01T10:00:00Z");
+    private final LocalDate day0 = LocalDate.of(2026, 3, 1);
+    private final Clock clock = Clock.fixed(Instant.parse("2026-03-04T09:00:00Z"), ZoneOffset.UTC);
+    private DeskSyncService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DeskSyncService(libraryService, bookRepository, 4, 100, LaneScheduler.unbounded(), clock);
+    }
+
+    @Test
+    void appliesEachBooksCommandsInRecordedOrder() {
+        when(bookRepository.findLoansByIsbnIn(anyCollection())).thenReturn(List.of());
+        when(libraryService.returnBook("111", day0)).thenReturn("Book returned successfully");
+        when(libraryService.checkoutBook("111", "b@x.com", day0)).thenReturn("Book checked out successfully. Due date: x");
+        when(libraryService.checkoutBook("222", "c@x.com", day0)).thenReturn("Book is not available");
+
+        // uploaded out of order: the return of 111 happened before its re-checkout
+        SyncReport report = service.apply(List.of(
+                DeskCommand.checkout("111", "b@x.com", t0.plusSeconds(60)),
+                DeskCommand.checkout("222", "c@x.com", t0),
+                DeskCommand.returnOf("111", t0)));
+
+        InOrder book111 = inOrder(libraryService);
+        book111.verify(libraryService).returnBook("111", day0);
+        book111.verify(libraryService).checkoutBook("111", "b@x.com", day0);
+        assertThat(report.groups()).isEqualTo(2);
+        assertThat(report.outcomes()).extracting(SyncReport.Outcome::index).containsExactly(0, 1, 2);
+        assertThat(report.outcomes()).extracting(SyncReport.Outcome::applied).containsExactly(true, false, true);
+        assertThat(report.outcomes().get(1).message()).isEqualTo("Book is not available");
+        assertThat(report.applied()).isEqualTo(2);
+        assertThat(report.rejected()).isEqualTo(1);
+    }
+
+    @Test
+    void failedCommandIsReportedAndGroupCarriesOn() {
+        when(libraryService.checkoutBook("404", "a@x.com", day0)).thenThrow(new IllegalArgumentException("Book not found"));
+        when(libraryService.checkoutBook("111", "a@x.com", day0)).thenReturn("Book checked out successfully. Due date: x");
+
+        SyncReport report = service.apply(List.of(
+                DeskCommand.checkout("404", "a@x.com", t0),
+                DeskCommand.checkout("111", "a@x.com", t0.plusSeconds(1))));
+
+        assertThat(report.groups()).isEqualTo(1);
+        assertThat(report.outcomes().get(0).applied()).isFalse();
+        assertThat(report.outcomes().get(0).message()).isEqualTo("Book not found");
+        assertThat(report.outcomes().get(1).applied()).isTrue();
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void commandsSharingAMemberShareAGroup() {
+        var commands = List.of(
+                DeskCommand.checkout("111", "a@x.com", t0),
+                DeskCommand.returnOf("222", t0),              // held by a@x.com
+                DeskCommand.returnOf("333", t0),              // held by b@x.com
+                DeskCommand.checkout("444", "c@x.com", t0));
+
+        List<int[]> groups = DeskSyncService.group(commands, Map.of("222", "a@x.com", "333", "b@x.com"));
+
+        assertThat(groups).containsExactly(new int[]{0, 1}, new int[]{2}, new int[]{3});
+    }
+
+    @Test
+    void returnsAreGroupedByCurrentHolder() {
+        when(bookRepository.findLoansByIsbnIn(List.of("222")))
+                .thenReturn(List.of(new LoanRow(2L, "222", "a@x.com", MembershipType.REGULAR, LocalDate.now())));
+        when(libraryService.checkoutBook("111", "a@x.com", day0)).thenReturn("Member has reached checkout limit");
+        when(libraryService.returnBook("222", day0)).thenReturn("Book returned successfully");
+
+        SyncReport report = service.apply(List.of(
+                DeskCommand.checkout("111", "a@x.com", t0.plusSeconds(5)),
+                DeskCommand.returnOf("222", t0)));
+
+        assertThat(report.groups()).isEqualTo(1);
+        InOrder order = inOrder(libraryService);
+        order.verify(libraryService).returnBook("222", day0);
+        order.verify(libraryService).checkoutBook("111", "a@x.com", day0);
+    }
+
+    @Test
+    void commandsAreDatedWhenTheyWereRecorded() {
+        when(bookRepository.findLoansByIsbnIn(anyCollection())).thenReturn(List.of());
+        when(libraryService.returnBook("111", LocalDate.of(2026, 2, 27))).thenReturn("Book returned successfully");
+        when(libraryService.checkoutBook("222", "a@x.com", LocalDate.of(2026, 3, 4)))
+                .thenReturn("Book checked out successfully. Due date: x");
+
+        SyncReport report = service.apply(List.of(
+                DeskCommand.returnOf("111", Instant.parse("2026-02-27T23:59:00Z")),
+                // recorded "after" now by a desk with a fast clock: dated today
+                DeskCommand.checkout("222", "a@x.com", Instant.parse("2026-03-09T08:00:00Z"))));
+
+        assertThat(report.applied()).isEqualTo(2);
+    }
+
+    @Test
+    void oversizedBatchIsRefused() {
+        var small = new DeskSyncService(libraryService, bookRepository, 4, 1, LaneScheduler.unbounded(), clock);
+
+        assertThatThrownBy(() -> small.apply(List.of(
+                DeskCommand.returnOf("1", t0), DeskCommand.returnOf("2", t0))))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(libraryService);
+    }
+}
@@ -0,0 +1,45 @@
+package edu.trincoll.service.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WarmupProfileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void loadsOperationsSkippingCommentsAndBlankLines() throws Exception {
+        Path file = dir.resolve("warmup.profile");
+        Files.writeString(file, """
+                # recorded 2026-10-01
+                checkout, 111 ,a@x.com
+
+                search,title,war, and peace
+                REPORT,overdue
+                """);
+
+        WarmupProfile profile = WarmupProfile.load(file);
+
+        assertThat(profile.steps()).containsExactly(
+                new WarmupProfile.Step(WarmupProfile.Kind.CHECKOUT, "111", "a@x.com"),
+                new WarmupProfile.Step(WarmupProfile.Kind.SEARCH, "title", "war, and peace"),
+                new WarmupProfile.Step(WarmupProfile.Kind.REPORT, "overdue", null));
+    }
+
+    @Test
+    void rejectsMalformedLinesWithTheirNumber() throws Exception {
+        Path file = dir.resolve("warmup.profile");
+        Files.writeString(file, "report,overdue\ncheckout,111\n");
+
+        assertThatThrownBy(() -> WarmupProfile.load(file))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Line 2: checkout takes 2 values");
+    }
+}
@@ -0,0 +1,97 @@
+package edu.trincoll.service.warmup;
+
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.service.LibraryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WarmupRunnerTest {
+
+    @Mock LibraryService libraryService;
+    @Mock BookRepository bookRepository;
+    @Mock MemberRepository memberRepository;
+    @Mock PlatformTransactionManager transactionManager;
+
+    private WarmupRunner runner(boolean enabled, int operations) {
+        return new WarmupRunner(libraryService, bookRepository, memberRepository, transactionManager,
+                enabled, "", operations, 60_000);
+    }
+
+    @Test
+    void replaysProfileInRolledBackTransactions() {
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        when(libraryService.generateReport("overdue")).thenThrow(new IllegalStateException("boom"));
+        WarmupProfile profile = new WarmupProfile(List.of(
+                new WarmupProfile.Step(WarmupProfile.Kind.CHECKOUT, "111", "a@x.com"),
+                new WarmupProfile.Step(WarmupProfile.Kind.SEARCH, "title", "dune"),
+                new WarmupProfile.Step(WarmupProfile.Kind.REPORT, "overdue", null)));
+        WarmupRunner runner = runner(true, 7);
+
+        WarmupReport report = runner.replay(profile);
+
+        InOrder circulation = inOrder(libraryService);
+        circulation.verify(libraryService).checkoutBook("111", "a@x.com");
+        circulation.verify(libraryService).returnBook("111");
+        verify(libraryService, times(3)).checkoutBook("111", "a@x.com");
+        verify(libraryService, times(2)).searchBooks("dune", "title");
+        assertThat(report.operations()).isEqualTo(7);
+        assertThat(report.failures()).isEqualTo(2);
+        assertThat(report.latency()).containsOnlyKeys(WarmupProfile.Kind.values());
+        assertThat(runner.completed()).isEqualTo(7);
+
+        // nothing a warm-up does is kept
+        var committed = ArgumentCaptor.forClass(TransactionStatus.class);
+        verify(transactionManager, times(5)).commit(committed.capture());
+        assertThat(committed.getAllValues()).allMatch(TransactionStatus::isRollbackOnly);
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    void healthIsOutOfServiceUntilWarmupFinishes() {
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        when(bookRepository.findAll(any(Pageable.class)))
+                .thenReturn(Page.empty());
+        when(memberRepository.findAll(any(Pageable.class)))
+                .thenReturn(Page.empty());
+        WarmupRunner runner = runner(true, 10);
+        WarmupHealthIndicator health = new WarmupHealthIndicator(runner);
+
+        assertThat(health.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        runner.run(new DefaultApplicationArguments());
+
+        // an empty catalog leaves nothing to replay
+        assertThat(runner.state()).isEqualTo(WarmupRunner.State.DONE);
+        assertThat(runner.report()).isNull();
+        assertThat(health.health().getStatus()).isEqualTo(Status.UP);
+        verifyNoInteractions(libraryService);
+    }
+
+    @Test
+    void disabledWarmupIsReady() {
+        WarmupRunner runner = runner(false, 10);
+
+        runner.run(new DefaultApplicationArguments());
+
+        assertThat(new WarmupHealthIndicator(runner).health().getStatus()).isEqualTo(Status.UP);
+        verifyNoInteractions(libraryService, bookRepository, transactionManager);
+    }
+}
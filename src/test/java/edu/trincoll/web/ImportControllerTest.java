@@ -0,0 +1,84 @@
+package edu.trincoll.web;
+
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.service.batch.CatalogImportService;
+import edu.trincoll.service.batch.ImportReport;
+import edu.trincoll.service.batch.MemberImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class ImportControllerTest {
+
+    @Mock CatalogImportService catalogImportService;
+    @Mock MemberImportService memberImportService;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.standaloneSetup(new ImportController(catalogImportService, memberImportService))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void bookUploadIsImportedFromATemporaryFile() throws Exception {
+        List<Path> files = new ArrayList<>();
+        when(catalogImportService.importCatalog(any())).thenAnswer(inv -> {
+            Path file = inv.getArgument(0);
+            files.add(file);
+            assertThat(Files.readString(file)).isEqualTo("isbn,title\n111,Dune\n");
+            return new ImportReport(1, 0, List.of(), Duration.ofMillis(5));
+        });
+
+        mvc.perform(post("/api/import/books").contentType(ImportController.TEXT_CSV).content("isbn,title\n111,Dune\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+
+        assertThat(files).singleElement().satisfies(file -> {
+            assertThat(file.toString()).endsWith(".csv");
+            assertThat(file).doesNotExist();
+        });
+    }
+
+    @Test
+    void tabSeparatedMembersKeepTheirDelimiter() throws Exception {
+        when(memberImportService.importMembers(any(), eq(MembershipType.STUDENT))).thenAnswer(inv -> {
+            assertThat(inv.getArgument(0, Path.class).toString()).endsWith(".tsv");
+            return new ImportReport(1, 0, List.of(), Duration.ofMillis(5));
+        });
+
+        mvc.perform(post("/api/import/members").param("defaultType", "STUDENT")
+                        .contentType(ImportController.TEXT_TSV).content("name\temail\nAnn\tann@x.org\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+    }
+
+    @Test
+    void otherContentTypesAreRefused() throws Exception {
+        mvc.perform(post("/api/import/books").contentType("application/json").content("{}"))
+                .andExpect(status().isUnsupportedMediaType());
+        verifyNoInteractions(catalogImportService);
+    }
+}
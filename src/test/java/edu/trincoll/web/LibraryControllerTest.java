@@ -0,0 +1,157 @@
+package edu.trincoll.web;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.CatalogVersion;
+import edu.trincoll.service.LibraryFacade;
+import edu.trincoll.service.NotFoundException;
+import edu.trincoll.service.RuleViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class LibraryControllerTest {
+
+    @Mock LibraryFacade libraryFacade;
+
+    private final LocalDate today = LocalDate.of(2025, 3, 14);
+    private final Clock clock = Clock.fixed(today.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.standaloneSetup(new LibraryController(libraryFacade, clock))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void checkoutReturnsServiceMessage() throws Exception {
+        when(libraryFacade.checkoutBook("111", "ann@x.org"))
+                .thenReturn("Book checked out successfully. Due date: 2030-01-15");
+
+        mvc.perform(post("/api/checkouts").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isbn\":\"111\",\"memberEmail\":\"ann@x.org\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Book checked out successfully. Due date: 2030-01-15"));
+    }
+
+    @Test
+    void refusedCheckoutIsConflict() throws Exception {
+        when(libraryFacade.checkoutBook("111", "ann@x.org")).thenReturn("Member has reached checkout limit");
+
+        mvc.perform(post("/api/checkouts").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isbn\":\"111\",\"memberEmail\":\"ann@x.org\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Member has reached checkout limit"));
+    }
+
+    @Test
+    void invalidCheckoutRequestIsRejectedBeforeTheService() throws Exception {
+        mvc.perform(post("/api/checkouts").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isbn\":\"\",\"memberEmail\":\"not-an-email\"}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(libraryFacade);
+    }
+
+    @Test
+    void unknownBookIsNotFound() throws Exception {
+        when(libraryFacade.returnBook("404")).thenThrow(new NotFoundException("Book not found"));
+
+        mvc.perform(post("/api/returns").contentType(MediaType.APPLICATION_JSON).content("{\"isbn\":\"404\"}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("Book not found"));
+    }
+
+    @Test
+    void ruleViolationIsConflict() throws Exception {
+        when(libraryFacade.checkoutBook("111", "ann@x.org")).thenThrow(new RuleViolationException("Unknown membership type"));
+
+        mvc.perform(post("/api/checkouts").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isbn\":\"111\",\"memberEmail\":\"ann@x.org\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail").value("Unknown membership type"));
+    }
+
+    @Test
+    void argumentMessageDoesNotDecideTheStatus() throws Exception {
+        when(libraryFacade.search("x", "shelf")).thenThrow(new IllegalArgumentException("Shelf not found"));
+
+        mvc.perform(get("/api/books").param("q", "x").param("type", "shelf"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void unexpectedStateIsNotMappedToAClientError() {
+        when(libraryFacade.returnBook("111")).thenThrow(new IllegalStateException("Connection is closed"));
+
+        // not handled by ApiExceptionHandler, so the container answers 500
+        assertThatThrownBy(() -> mvc.perform(post("/api/returns").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isbn\":\"111\"}")))
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void searchDefaultsToTitle() throws Exception {
+        Book book = new Book();
+        book.setIsbn("111");
+        book.setTitle("Dune");
+        when(libraryFacade.search("dune", "title")).thenReturn(List.of(book));
+
+        mvc.perform(get("/api/books").param("q", "dune"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Dune"));
+    }
+
+    @Test
+    void reportsArePlainText() throws Exception {
+        when(libraryFacade.generateReport("available")).thenReturn("Available books: 3");
+
+        mvc.perform(get("/api/reports/available"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Available books: 3"));
+    }
+
+    @Test
+    void unchangedCatalogAnswers304WithoutRegeneratingReport() throws Exception {
+        when(libraryFacade.catalogVersion()).thenReturn(7L);
+        when(libraryFacade.generateReport("overdue")).thenReturn("OVERDUE BOOKS REPORT");
+
+        String etag = mvc.perform(get("/api/reports/overdue"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag",
+                        "\"" + CatalogVersion.node() + "-7-" + today.toEpochDay() + "\""))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/api/reports/overdue").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(libraryFacade, times(1)).generateReport("overdue");
+
+        when(libraryFacade.catalogVersion()).thenReturn(8L);
+        mvc.perform(get("/api/reports/overdue").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+        verify(libraryFacade, times(2)).generateReport("overdue");
+    }
+}
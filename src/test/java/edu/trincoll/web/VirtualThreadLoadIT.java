@@ -0,0 +1,139 @@
+package edu.trincoll.web;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.Member;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Holds {@value #CONCURRENT} requests open at once against a server whose
+ * platform thread pool is capped at 8. Every request waits on a shared barrier
+ * that only opens once all of them are in flight, so the test can only pass if
+ * requests are not tied to platform threads. The same load is then sent
+ * through checkout and search, which run JPA queries against H2 under the
+ * work lanes. Admission limits are raised so that every request from this one
+ * client is let in.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"server.tomcat.threads.max=8", "server.tomcat.threads.min-spare=1",
+                "library.admission.client.rate-per-second=10000", "library.admission.client.burst=10000",
+                "library.admission.max-in-flight=1000", "library.lanes.max-wait-ms=60000"})
+@ActiveProfiles("test")
+class VirtualThreadLoadIT {
+    static final int CONCURRENT = 400;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired BookRepository bookRepository;
+    @Autowired MemberRepository memberRepository;
+
+    @TestConfiguration
+    static class BlockingEndpointConfig {
+        @Bean
+        BarrierController barrierController() {
+            return new BarrierController();
+        }
+    }
+
+    @RestController
+    static class BarrierController {
+        private final CyclicBarrier barrier = new CyclicBarrier(CONCURRENT);
+
+        @GetMapping("/test/barrier")
+        String await() throws Exception {
+            barrier.await(30, TimeUnit.SECONDS);
+            return Thread.currentThread().isVirtual() ? "virtual" : "platform";
+        }
+    }
+
+    @Test
+    void servesFarMoreConcurrentRequestsThanPlatformThreads() throws Exception {
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor();
+             var client = HttpClient.newBuilder().executor(executor).build()) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/test/barrier")).build();
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT; i++) {
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+            CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+
+            assertThat(responses).allSatisfy(r -> {
+                assertThat(r.join().statusCode()).isEqualTo(200);
+                assertThat(r.join().body()).isEqualTo("virtual");
+            });
+        }
+    }
+
+    @Test
+    void checkoutsAndSearchesThroughJpaAllSucceed() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        int checkouts = CONCURRENT / 4;
+        List<Book> books = new ArrayList<>();
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < checkouts; i++) {
+            Book book = new Book();
+            book.setIsbn("VT-" + suffix + "-" + i);
+            book.setTitle("Loadtest" + suffix + " " + i);
+            book.setAuthor("Author");
+            book.setPublicationDate(LocalDate.of(2020, 1, 1));
+            book.setStatus(BookStatus.AVAILABLE);
+            books.add(book);
+            members.add(new Member("Reader " + i, "vt-" + suffix + "-" + i + "@example.com"));
+        }
+        bookRepository.saveAll(books);
+        memberRepository.saveAll(members);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor();
+             var client = HttpClient.newBuilder().executor(executor).build()) {
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT; i++) {
+                HttpRequest request;
+                if (i % 4 == 0) {
+                    int n = i / 4;
+                    String body = "{\"isbn\":\"VT-" + suffix + "-" + n + "\",\"memberEmail\":\"vt-" + suffix + "-" + n
+                            + "@example.com\"}";
+                    request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/checkouts"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                } else {
+                    request = HttpRequest.newBuilder(URI.create(
+                            "http://localhost:" + port + "/api/books?type=title&q=loadtest" + suffix)).build();
+                }
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+            CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get(120, TimeUnit.SECONDS);
+
+            assertThat(responses).allSatisfy(r -> assertThat(r.join().statusCode()).isEqualTo(200));
+        }
+        assertThat(bookRepository.findAll()).filteredOn(b -> b.getIsbn().startsWith("VT-" + suffix))
+                .hasSize(checkouts)
+                .allSatisfy(b -> assertThat(b.getStatus()).isEqualTo(BookStatus.CHECKED_OUT));
+    }
+}